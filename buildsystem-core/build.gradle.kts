@@ -3,6 +3,7 @@ applyCoreConfiguration()
 plugins {
     `java-library`
     id("com.github.johnrengelman.shadow") version "7.1.2"
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 project.description = "Core"
@@ -40,6 +41,16 @@ dependencies {
     implementation(libs.fastboard)
     implementation(libs.nbt) { isTransitive = false }
     implementation(libs.bstats)
+
+    testImplementation(libs.spigot)
+    testImplementation(libs.authlib)
+    testImplementation(libs.junit.jupiter)
+
+    jmh(libs.spigot)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
 }
 
 tasks {
@@ -51,6 +62,10 @@ tasks {
         options.encoding = Charsets.UTF_8.name()
     }
 
+    test {
+        useJUnitPlatform()
+    }
+
     shadowJar {
         dependsOn(project.project(":buildsystem-abstraction").subprojects.map {
             it.tasks.named("assemble")
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Compares copying a world folder with {@link FileOperations#copyDirectory(Path, Path)} against the recursive copy
+ * through streams with a 1 KiB buffer which {@code FileUtils.copy} used to do, e.g. when a world is created from a
+ * template.
+ * <p>
+ * The world is generated once per trial and consists of region files of {@link #REGION_FILE_SIZE} bytes in all three
+ * dimensions, which make up {@code worldSize} MiB, and a few hundred small files such as the {@code level.dat}, player
+ * data and statistics. As the source is read from the page cache after the first copy, both copies are measured with a
+ * warm cache. Run with {@code ./gradlew :buildsystem-core:jmh}; the worlds are created in {@code directory}, which
+ * should be on the same disk as the server's worlds.
+ *
+ * @author einTosti
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileCopyBenchmark {
+
+    private static final int REGION_FILE_SIZE = 8 * 1024 * 1024;
+    private static final int SMALL_FILES = 300;
+    private static final int SMALL_FILE_SIZE = 4 * 1024;
+    private static final String[] DIMENSIONS = {"region", "DIM-1/region", "DIM1/region"};
+
+    /**
+     * The size of the region files in MiB.
+     */
+    @Param({"2048"})
+    private int worldSize;
+
+    /**
+     * The folder in which the worlds are created, or the system's temporary folder if empty.
+     */
+    @Param({""})
+    private String directory;
+
+    private FileOperations fileOperations;
+    private Path folder;
+    private Path source;
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.fileOperations = new FileOperations(Logger.getLogger(FileCopyBenchmark.class.getName()));
+        this.folder = directory.isEmpty()
+                ? Files.createTempDirectory("buildsystem-copy")
+                : Files.createTempDirectory(Paths.get(directory), "buildsystem-copy");
+        this.source = folder.resolve("source");
+        this.target = folder.resolve("target");
+        createWorld(source);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteTarget() {
+        fileOperations.deleteDirectory(target, null).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fileOperations.deleteDirectory(folder, null).join();
+        fileOperations.shutdown();
+    }
+
+    @Benchmark
+    public void streamCopy() throws IOException {
+        copy(source.toFile(), target.toFile());
+    }
+
+    @Benchmark
+    public long fileOperationsCopy() {
+        return fileOperations.copyDirectory(source, target).join();
+    }
+
+    private void createWorld(Path world) throws IOException {
+        Random random = new Random(0);
+        byte[] regionFile = new byte[REGION_FILE_SIZE];
+        long regionFiles = (long) worldSize * 1024 * 1024 / REGION_FILE_SIZE;
+        for (int i = 0; i < regionFiles; i++) {
+            Path dimension = world.resolve(DIMENSIONS[i % DIMENSIONS.length]);
+            Files.createDirectories(dimension);
+            random.nextBytes(regionFile);
+            int x = i / DIMENSIONS.length;
+            Files.write(dimension.resolve("r." + (x % 32) + "." + (x / 32) + ".mca"), regionFile);
+        }
+
+        byte[] smallFile = new byte[SMALL_FILE_SIZE];
+        String[] folders = {"playerdata", "stats", "advancements", "data"};
+        for (int i = 0; i < SMALL_FILES; i++) {
+            Path smallFolder = world.resolve(folders[i % folders.length]);
+            Files.createDirectories(smallFolder);
+            random.nextBytes(smallFile);
+            Files.write(smallFolder.resolve(i + ".dat"), smallFile);
+        }
+
+        random.nextBytes(smallFile);
+        Files.write(world.resolve("level.dat"), smallFile);
+        Files.write(world.resolve("uid.dat"), new byte[16]);
+        Files.write(world.resolve("session.lock"), new byte[8]);
+    }
+
+    /**
+     * The copy which {@code FileUtils.copy} used to do.
+     */
+    private void copy(File source, File target) throws IOException {
+        if (FileOperations.IGNORED_WORLD_FILES.contains(source.getName())) {
+            return;
+        }
+
+        if (source.isDirectory()) {
+            if (!target.exists() && !target.mkdirs()) {
+                throw new IOException("Couldn't create directory: " + target.getName());
+            }
+
+            for (String fileName : source.list()) {
+                copy(new File(source, fileName), new File(target, fileName));
+            }
+        } else {
+            try (InputStream inputStream = Files.newInputStream(source.toPath());
+                 OutputStream outputStream = Files.newOutputStream(target.toPath())) {
+                byte[] buffer = new byte[1024];
+                int length;
+                while ((length = inputStream.read(buffer)) > 0) {
+                    outputStream.write(buffer, 0, length);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the builder lookup which is done on every block break, place and interaction in a world with 50 builders.
+ * <p>
+ * {@link BuildWorld} can only be created by a running plugin, so both lookups are reproduced on the collections
+ * themselves: a {@code parallelStream} over a {@link List}, as {@code isBuilder} and {@code getBuilder} used to do, and
+ * the {@link LinkedHashMap} keyed by unique-id which is used now. Run with {@code ./gradlew :buildsystem-core:jmh}.
+ *
+ * @author einTosti
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BuilderLookupBenchmark {
+
+    private static final int BUILDERS = 50;
+
+    private List<Builder> builderList;
+    private Map<UUID, Builder> builderMap;
+    private UUID lastBuilder;
+    private UUID otherPlayer;
+
+    @Setup
+    public void setUp() {
+        this.builderList = new ArrayList<>();
+        this.builderMap = new LinkedHashMap<>();
+        for (int i = 0; i < BUILDERS; i++) {
+            Builder builder = new Builder(UUID.randomUUID(), "Builder" + i);
+            builderList.add(builder);
+            builderMap.put(builder.getUuid(), builder);
+        }
+
+        this.lastBuilder = builderList.get(BUILDERS - 1).getUuid();
+        this.otherPlayer = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public boolean parallelStreamIsBuilder() {
+        return builderList.parallelStream().anyMatch(builder -> builder.getUuid().equals(lastBuilder));
+    }
+
+    @Benchmark
+    public boolean parallelStreamIsNotBuilder() {
+        return builderList.parallelStream().anyMatch(builder -> builder.getUuid().equals(otherPlayer));
+    }
+
+    @Benchmark
+    public Builder parallelStreamGetBuilder() {
+        return builderList.parallelStream()
+                .filter(builder -> builder.getUuid().equals(lastBuilder))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Benchmark
+    public boolean mapIsBuilder() {
+        return builderMap.containsKey(lastBuilder);
+    }
+
+    @Benchmark
+    public boolean mapIsNotBuilder() {
+        return builderMap.containsKey(otherPlayer);
+    }
+
+    @Benchmark
+    public Builder mapGetBuilder() {
+        return builderMap.get(lastBuilder);
+    }
+}
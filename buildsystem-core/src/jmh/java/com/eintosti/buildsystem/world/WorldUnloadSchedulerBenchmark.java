@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of resetting the unload timer of one of many loaded worlds, which happens whenever a player enters
+ * or leaves a world.
+ * <p>
+ * {@code perWorldTaskReset} cancels and reschedules a task per world, as the {@code BukkitTask} of each world used to
+ * be. The server's scheduler cannot run without a server, so a {@link ScheduledThreadPoolExecutor} stands in for it.
+ * {@code deadlineQueueReset} updates the world's last activity and schedules it with the {@link WorldUnloadScheduler},
+ * which is a no-op for worlds which are already queued. {@code deadlineQueueTick} measures the deferred part of that
+ * reset: the check once a second, at which every world whose deadline has been postponed is put back into the queue.
+ * <p>
+ * {@link BuildWorld}s can only be created by a running plugin, so the scheduler is given {@link IdleWorld}s instead,
+ * whose deadline is calculated the same way. Run with {@code ./gradlew :buildsystem-core:jmh}.
+ *
+ * @author einTosti
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldUnloadSchedulerBenchmark {
+
+    private static final long UNLOAD_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final Runnable UNLOAD = () -> {
+    };
+
+    @Param({"100", "1000", "10000"})
+    private int worlds;
+
+    private IdleWorld[] idleWorlds;
+    private WorldUnloadScheduler<IdleWorld> scheduler;
+    private ScheduledThreadPoolExecutor executor;
+    private ScheduledFuture<?>[] tasks;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.idleWorlds = createWorlds(worlds);
+        this.scheduler = createScheduler();
+        this.executor = new ScheduledThreadPoolExecutor(1);
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.tasks = new ScheduledFuture<?>[worlds];
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < worlds; i++) {
+            idleWorlds[i].lastActivity = now;
+            scheduler.schedule(idleWorlds[i]);
+            tasks[i] = executor.schedule(UNLOAD, UNLOAD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void perWorldTaskReset() {
+        int i = nextIndex();
+        tasks[i].cancel(false);
+        tasks[i] = executor.schedule(UNLOAD, UNLOAD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    public void deadlineQueueReset() {
+        IdleWorld idleWorld = idleWorlds[nextIndex()];
+        idleWorld.lastActivity = System.currentTimeMillis();
+        scheduler.schedule(idleWorld);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 20)
+    @Measurement(iterations = 50)
+    public void deadlineQueueTick(PostponedDeadlines postponedDeadlines) {
+        postponedDeadlines.scheduler.tick();
+    }
+
+    private int nextIndex() {
+        if (++index == worlds) {
+            index = 0;
+        }
+        return index;
+    }
+
+    /**
+     * A queue in which the deadline of every world has passed, but all worlds have been active since.
+     */
+    @State(Scope.Thread)
+    public static class PostponedDeadlines {
+
+        private IdleWorld[] idleWorlds;
+        private WorldUnloadScheduler<IdleWorld> scheduler;
+
+        @Setup(Level.Trial)
+        public void createWorlds(WorldUnloadSchedulerBenchmark benchmark) {
+            this.idleWorlds = WorldUnloadSchedulerBenchmark.createWorlds(benchmark.worlds);
+        }
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            this.scheduler = createScheduler();
+            long now = System.currentTimeMillis();
+            for (IdleWorld idleWorld : idleWorlds) {
+                idleWorld.lastActivity = now - UNLOAD_MILLIS - 1000L;
+                scheduler.schedule(idleWorld);
+                idleWorld.lastActivity = now;
+            }
+        }
+    }
+
+    private static IdleWorld[] createWorlds(int amount) {
+        IdleWorld[] idleWorlds = new IdleWorld[amount];
+        for (int i = 0; i < amount; i++) {
+            idleWorlds[i] = new IdleWorld();
+        }
+        return idleWorlds;
+    }
+
+    private static WorldUnloadScheduler<IdleWorld> createScheduler() {
+        return new WorldUnloadScheduler<>(IdleWorld::getUnloadDeadline, idleWorld -> {
+        });
+    }
+
+    /**
+     * Stands in for a {@link BuildWorld}, whose {@link BuildWorld#getUnloadDeadline() deadline} is its last activity
+     * plus the time until it is unloaded.
+     */
+    private static class IdleWorld {
+
+        private long lastActivity;
+
+        private long getUnloadDeadline() {
+            return lastActivity + UNLOAD_MILLIS;
+        }
+    }
+}
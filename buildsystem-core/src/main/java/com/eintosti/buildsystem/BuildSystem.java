@@ -25,6 +25,9 @@ import com.eintosti.buildsystem.command.TimeCommand;
 import com.eintosti.buildsystem.command.TopCommand;
 import com.eintosti.buildsystem.command.WorldsCommand;
 import com.eintosti.buildsystem.config.ConfigValues;
+import com.eintosti.buildsystem.config.ConfigurationWriter;
+import com.eintosti.buildsystem.config.PlayersConfig;
+import com.eintosti.buildsystem.config.WorldConfig;
 import com.eintosti.buildsystem.expansion.luckperms.LuckPermsExpansion;
 import com.eintosti.buildsystem.expansion.placeholderapi.PlaceholderApiExpansion;
 import com.eintosti.buildsystem.internal.ServerVersion;
@@ -44,6 +47,10 @@ import com.eintosti.buildsystem.settings.Settings;
 import com.eintosti.buildsystem.settings.SettingsInventory;
 import com.eintosti.buildsystem.settings.SettingsManager;
 import com.eintosti.buildsystem.settings.SpeedInventory;
+import com.eintosti.buildsystem.storage.PlayerStorage;
+import com.eintosti.buildsystem.storage.SqliteStorage;
+import com.eintosti.buildsystem.storage.StorageType;
+import com.eintosti.buildsystem.storage.WorldStorage;
 import com.eintosti.buildsystem.tabcomplete.BuildTabComplete;
 import com.eintosti.buildsystem.tabcomplete.ConfigTabComplete;
 import com.eintosti.buildsystem.tabcomplete.EmptyTabComplete;
@@ -53,8 +60,10 @@ import com.eintosti.buildsystem.tabcomplete.SpawnTabComplete;
 import com.eintosti.buildsystem.tabcomplete.SpeedTabComplete;
 import com.eintosti.buildsystem.tabcomplete.TimeTabComplete;
 import com.eintosti.buildsystem.tabcomplete.WorldsTabComplete;
+import com.eintosti.buildsystem.util.FileOperations;
 import com.eintosti.buildsystem.util.InventoryUtil;
 import com.eintosti.buildsystem.util.SkullCache;
+import com.eintosti.buildsystem.util.UUIDFetcher;
 import com.eintosti.buildsystem.util.external.UpdateChecker;
 import com.eintosti.buildsystem.version.customblocks.CustomBlocks;
 import com.eintosti.buildsystem.version.gamerules.GameRules;
@@ -73,11 +82,17 @@ import org.bstats.charts.SimplePie;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
 
 /**
  * @author einTosti
@@ -116,6 +131,10 @@ public class BuildSystem extends JavaPlugin {
     private WorldsInventory worldsInventory;
 
     private ConfigValues configValues;
+    private ConfigurationWriter configurationWriter;
+    private FileOperations fileOperations;
+    private WorldStorage worldStorage;
+    private PlayerStorage playerStorage;
     private CustomBlocks customBlocks;
     private GameRules gameRules;
     private SkullCache skullCache;
@@ -135,7 +154,11 @@ public class BuildSystem extends JavaPlugin {
         this.getConfig().options().copyDefaults(true);
         this.saveConfig();
         this.configValues = new ConfigValues(this);
+        this.configurationWriter = new ConfigurationWriter(this);
+        this.fileOperations = new FileOperations(this);
+        UUIDFetcher.load(this);
 
+        initStorage();
         initClasses();
         if (!initVersionedClasses()) {
             getLogger().severe("BuildSystem does not support your server version: " + versionString);
@@ -189,6 +212,13 @@ public class BuildSystem extends JavaPlugin {
         playerManager.save();
         spawnManager.save();
         inventoryUtil.save();
+        UUIDFetcher.save(this);
+        worldManager.getWorldUnloadPolicy().stop();
+        worldManager.getBackupManager().shutdown();
+        worldStorage.close();
+        playerStorage.close();
+        fileOperations.shutdown();
+        configurationWriter.shutdown();
 
         unregisterExpansions();
 
@@ -207,6 +237,47 @@ public class BuildSystem extends JavaPlugin {
         return true;
     }
 
+    private void initStorage() {
+        if (configValues.getStorageType() == StorageType.SQLITE) {
+            try {
+                SqliteStorage sqliteStorage = new SqliteStorage(this);
+                try {
+                    migrateToDatabase(sqliteStorage);
+                } catch (SQLException e) {
+                    sqliteStorage.close();
+                    throw e;
+                }
+                this.worldStorage = sqliteStorage;
+                this.playerStorage = sqliteStorage;
+                return;
+            } catch (SQLException e) {
+                getLogger().log(Level.SEVERE, "Unable to open the database. Falling back to YAML storage", e);
+            }
+        }
+
+        this.worldStorage = new WorldConfig(this);
+        this.playerStorage = new PlayersConfig(this);
+    }
+
+    /**
+     * Copies all worlds and players from {@code worlds.yml} and {@code players.yml} into the database when it is used
+     * for the first time, before anything is loaded from it. The YAML files are left untouched.
+     *
+     * @param sqliteStorage The database
+     */
+    private void migrateToDatabase(SqliteStorage sqliteStorage) throws SQLException {
+        File worldsFile = new File(getDataFolder(), "worlds.yml");
+        File playersFile = new File(getDataFolder(), "players.yml");
+        if ((!worldsFile.exists() && !playersFile.exists()) || !sqliteStorage.isEmpty()) {
+            return;
+        }
+
+        Map<String, ConfigurationSection> worlds = worldsFile.exists() ? new WorldConfig(this).loadWorlds() : new HashMap<>();
+        Map<UUID, ConfigurationSection> players = playersFile.exists() ? new PlayersConfig(this).loadPlayers() : new HashMap<>();
+        sqliteStorage.migrate(worlds, players);
+        getLogger().info("Migrated " + worlds.size() + " worlds and " + players.size() + " players into the database");
+    }
+
     private void initClasses() {
         this.armorStandManager = new ArmorStandManager();
         this.playerManager = new PlayerManager(this);
@@ -301,6 +372,7 @@ public class BuildSystem extends JavaPlugin {
         new SettingsInteractListener(this);
         new SignChangeListener(this);
         new WeatherChangeListener(this);
+        new WorldLoadListener(this);
         new WorldManipulateListener(this);
     }
 
@@ -392,6 +464,7 @@ public class BuildSystem extends JavaPlugin {
         if (init) {
             initVersionedClasses();
             worldManager.getBuildWorlds().forEach(BuildWorld::manageUnload);
+            worldManager.getWorldUnloadPolicy().applyMemoryThreshold();
             if (configValues.isScoreboard()) {
                 getSettingsManager().startScoreboard();
             } else {
@@ -496,6 +569,22 @@ public class BuildSystem extends JavaPlugin {
         return configValues;
     }
 
+    public ConfigurationWriter getConfigurationWriter() {
+        return configurationWriter;
+    }
+
+    public FileOperations getFileOperations() {
+        return fileOperations;
+    }
+
+    public WorldStorage getWorldStorage() {
+        return worldStorage;
+    }
+
+    public PlayerStorage getPlayerStorage() {
+        return playerStorage;
+    }
+
     public CustomBlocks getCustomBlocks() {
         return customBlocks;
     }
@@ -65,6 +65,8 @@ public class Messages {
         setMessage(sb, "player_join", "&7[&a+&7] &a%player%");
         setMessage(sb, "player_quit", "&7[&c-&7] &c%player%");
         setMessage(sb, "loading_world", "&7Loading &b%world%&7...");
+        setMessage(sb, "loading_world_queued", "&7Waiting to load &b%world%&7... &8(&7#%position%&8)");
+        setMessage(sb, "loading_world_restoring", "&7Restoring &b%world% &7from the archive...");
         setMessage(sb, "world_not_loaded", "&cWorld is not loaded!");
         setMessage(sb, "enter_world_name", "&7Enter &bWorld Name");
         setMessage(sb, "enter_generator_name", "&7Enter &bGenerator Name");
@@ -220,9 +222,34 @@ public class Messages {
         setMessage(sb, "worlds_addbuilder_already_added", "%prefix% &cThis player is already a builder.");
         setMessage(sb, "worlds_addbuilder_added", "%prefix% &b%builder% &7was &aadded &7as a builder.");
         addSpacer(sb, "");
+        setMessage(sb, "worlds_backup_usage", "%prefix% &7Usage: &b/worlds backup <world> [list|restore <backup>]");
+        setMessage(sb, "worlds_backup_unknown_world", "%prefix% &cUnknown world.");
+        setMessage(sb, "worlds_backup_unknown_backup", "%prefix% &cUnknown backup.");
+        setMessage(sb, "worlds_backup_running", "%prefix% &cA backup of this world is already in progress.");
+        setMessage(sb, "worlds_backup_started", "%prefix% &7Creating a backup of &b%world%&7...");
+        setMessage(sb, "worlds_backup_created", "%prefix% &7Backup &b%backup% &7has been &asuccessfully &7created. &8(&7%size%, %new% new&8)");
+        setMessage(sb, "worlds_backup_error", "%prefix% &cError while creating the backup: Please try again!");
+        setMessage(sb, "worlds_backup_list_empty", "%prefix% &7There are no backups of &b%world%&7.");
+        setMessage(sb, "worlds_backup_list_title", "%prefix% &7Backups of &b%world%&7:");
+        setMessage(sb, "worlds_backup_list_entry", " &8- &b%backup% &8(&7%date%, %size%&8)");
+        setMessage(sb, "worlds_backup_restore_players", "%prefix% &cAll players have to leave the world before a backup can be restored.");
+        setMessage(sb, "worlds_backup_restore_started", "%prefix% &7Restoring backup &b%backup% &7of &b%world%&7...");
+        setMessage(sb, "worlds_backup_restore_error", "%prefix% &cError while restoring the backup: Please try again!");
+        setMessage(sb, "worlds_backup_restore_finished", "%prefix% &b%world% &7has been &asuccessfully &7restored.");
+        addSpacer(sb, "");
         setMessage(sb, "worlds_builders_usage", "%prefix% &7Usage: &b/worlds builders <world>");
         setMessage(sb, "worlds_builders_unknown_world", "%prefix% &cUnknown world.");
         addSpacer(sb, "");
+        setMessage(sb, "worlds_compact_usage", "%prefix% &7Usage: &b/worlds compact <world>");
+        setMessage(sb, "worlds_compact_unknown_world", "%prefix% &cUnknown world.");
+        setMessage(sb, "worlds_compact_unsupported_type", "%prefix% &cOnly void and flat worlds can be compacted.");
+        setMessage(sb, "worlds_compact_archived", "%prefix% &cThis world is archived and has to be loaded first.");
+        setMessage(sb, "worlds_compact_players", "%prefix% &cAll players have to leave the world before it can be compacted.");
+        setMessage(sb, "worlds_compact_running", "%prefix% &cThis world is already being compacted or backed up.");
+        setMessage(sb, "worlds_compact_started", "%prefix% &7Compacting &b%world%&7...");
+        setMessage(sb, "worlds_compact_finished", "%prefix% &b%world% &7has been &asuccessfully &7compacted. &8(&7%chunks% chunks removed, %files% region files, %size% reclaimed&8)");
+        setMessage(sb, "worlds_compact_error", "%prefix% &cError while compacting the world: Please try again!");
+        addSpacer(sb, "");
         setMessage(sb, "worlds_world_name", "World name");
         setMessage(sb, "worlds_world_exists", "%prefix% &cThis world already exists.");
         setMessage(sb, "worlds_world_creation_invalid_characters", "%prefix% &7&oRemoved invalid characters from world name.");
@@ -231,6 +258,7 @@ public class Messages {
         setMessage(sb, "worlds_template_creation_started", "%prefix% &7The creation of &b%world% &8(&7Template: &f%template%&8) &7has started...");
         setMessage(sb, "worlds_creation_finished", "%prefix% &7The world was &asuccessfully &7created.");
         setMessage(sb, "worlds_template_does_not_exist", "%prefix% &cThis template does not exist.");
+        setMessage(sb, "worlds_template_copy_failed", "%prefix% &cUnable to copy the template. Please try again!");
         addSpacer(sb, "");
         setMessage(sb, "worlds_unknown_command", "%prefix% &7Unknown command: &b/worlds help");
         setMessage(sb, "worlds_navigator_open", "%prefix% &cYou have already opened the navigator!");
@@ -239,8 +267,10 @@ public class Messages {
         setMessage(sb, "worlds_delete_unknown_world", "%prefix% &cUnknown world.");
         setMessage(sb, "worlds_delete_unknown_directory", "%prefix% &cError while deleting world: Directory not found!");
         setMessage(sb, "worlds_delete_error", "%prefix% &cError while deleting world: Please try again!");
+        setMessage(sb, "worlds_delete_in_use", "%prefix% &cThis world is being backed up, restored or compacted. Please try again later.");
         setMessage(sb, "worlds_delete_canceled", "%prefix% &7The deletion of &b%world% &7was canceled.");
         setMessage(sb, "worlds_delete_started", "%prefix% &7The deletion of &b%world% &7has started...");
+        setMessage(sb, "worlds_delete_progress", "%prefix% &8➥ &7Deleted &b%deleted%&7/&b%total% &7files...");
         setMessage(sb, "worlds_delete_finished", "%prefix% &7The world was &asuccessfully &7deleted.");
         setMessage(sb, "worlds_delete_players_world", "%prefix% &7&oThe world you were in was deleted.");
         addSpacer(sb, "");
@@ -286,11 +316,13 @@ public class Messages {
         setMessage(sb, "worlds_importall_usage", "%prefix% &7Usage: &b/worlds importall");
         setMessage(sb, "worlds_importall_no_worlds", "%prefix% &cNo worlds were found.");
         setMessage(sb, "worlds_importall_started", "%prefix% &7Beginning import of &b%amount% &7worlds...");
-        setMessage(sb, "worlds_importall_delay", "%prefix% &8➥ &7Delay between each world: &b%delay%s&7.");
+        setMessage(sb, "worlds_importall_validated", "%prefix% &8➥ &b%valid% &7of &b%amount% &7worlds can be imported &8(&b%size%&8)");
+        setMessage(sb, "worlds_importall_no_level", "%prefix% &c&l✗ &b%world% &7has no readable level.dat");
         setMessage(sb, "worlds_importall_invalid_character", "%prefix% &c✘ &7&o%world% &7contains invalid character &8(&c%char%&8)");
         setMessage(sb, "worlds_importall_world_already_imported", "%prefix% &c&l✗ &7World already imported: &b%world%");
-        setMessage(sb, "worlds_import_newer_version", "%prefix% &c&l✗ &b%world% &7was created in a &cnewer version &7of Minecraft");
+        setMessage(sb, "worlds_importall_newer_version", "%prefix% &c&l✗ &b%world% &7was created in a &cnewer version &7of Minecraft");
         setMessage(sb, "worlds_importall_world_imported", "%prefix% &a✔ &7World imported: &b%world%");
+        setMessage(sb, "worlds_importall_progress", "%prefix% &8➥ &7Imported &b%imported%&7/&b%amount% &7worlds...");
         setMessage(sb, "worlds_importall_finished", "%prefix% &7All worlds have been &asuccessfully &7imported.");
         addSpacer(sb, "");
         setMessage(sb, "worlds_info_usage", "%prefix% &7Usage: &b/worlds info [world]");
@@ -316,6 +348,7 @@ public class Messages {
                 " &8- &7Block placement: &b%block_placement%",
                 " &8- &7MobAI: &b%mobai%",
                 " &8- &7Custom spawn: &b%custom_spawn%",
+                " &8- &7Compressed: &b%compressed%",
                 "&7&m-------------------------------------"));
         addSpacer(sb, "");
         setMessage(sb, "worlds_item_receive", "%prefix% &7You received the &bNavigator&7.");
@@ -331,6 +364,7 @@ public class Messages {
         setMessage(sb, "worlds_rename_usage", "%prefix% &7Usage: &b/worlds rename <world>");
         setMessage(sb, "worlds_rename_unknown_world", "%prefix% &cUnknown world.");
         setMessage(sb, "worlds_rename_error", "%prefix% &cPlease try again.");
+        setMessage(sb, "worlds_rename_in_use", "%prefix% &cThis world is being backed up, restored or compacted. Please try again later.");
         setMessage(sb, "worlds_rename_same_name", "%prefix% &cThis is the world's current name.");
         setMessage(sb, "worlds_rename_set", "%prefix% &b%oldName% &7was successfully renamed to &b%newName%&7.");
         setMessage(sb, "worlds_rename_players_world", "%prefix% &7&oThe world you are in is being renamed...");
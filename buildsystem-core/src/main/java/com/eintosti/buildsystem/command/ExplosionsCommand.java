@@ -70,7 +70,7 @@ public class ExplosionsCommand implements CommandExecutor {
             return;
         }
 
-        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld.getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld);
         if (buildWorld == null) {
             Messages.sendMessage(player, "explosions_world_not_imported");
             return;
@@ -73,7 +73,7 @@ public class NoAICommand implements CommandExecutor {
             return;
         }
 
-        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld.getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld);
         if (buildWorld == null) {
             Messages.sendMessage(player, "noai_world_not_imported");
             return;
@@ -75,7 +75,7 @@ public class PhysicsCommand implements CommandExecutor {
             return;
         }
 
-        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld.getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld);
         if (buildWorld == null) {
             Messages.sendMessage(player, "physics_world_not_imported");
             return;
@@ -66,7 +66,7 @@ public class SpawnCommand implements CommandExecutor {
                     case "set":
                         Location playerLocation = player.getLocation();
                         World bukkitWorld = playerLocation.getWorld();
-                        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld.getName());
+                        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld);
 
                         if (buildWorld == null) {
                             Messages.sendMessage(player, "spawn_world_not_imported");
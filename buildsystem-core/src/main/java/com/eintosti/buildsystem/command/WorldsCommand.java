@@ -66,10 +66,18 @@ public class WorldsCommand implements CommandExecutor {
                 subCommand = new AddBuilderSubCommand(plugin, worldName);
                 break;
             }
+            case BACKUP: {
+                subCommand = new BackupSubCommand(plugin, worldName);
+                break;
+            }
             case BUILDERS: {
                 subCommand = new BuildersSubCommand(plugin, worldName);
                 break;
             }
+            case COMPACT: {
+                subCommand = new CompactSubCommand(plugin, worldName);
+                break;
+            }
             case DELETE: {
                 subCommand = new DeleteSubCommand(plugin, worldName);
                 break;
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.command.subcommand.worlds;
+
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.Messages;
+import com.eintosti.buildsystem.command.subcommand.SubCommand;
+import com.eintosti.buildsystem.tabcomplete.WorldsTabComplete;
+import com.eintosti.buildsystem.util.FileUtils;
+import com.eintosti.buildsystem.world.BuildWorld;
+import com.eintosti.buildsystem.world.WorldManager;
+import com.eintosti.buildsystem.world.backup.BackupManager;
+import com.eintosti.buildsystem.world.backup.WorldBackup;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.text.SimpleDateFormat;
+import java.util.AbstractMap;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * @author einTosti
+ */
+public class BackupSubCommand extends SubCommand {
+
+    private final BuildSystem plugin;
+    private final String worldName;
+
+    public BackupSubCommand(BuildSystem plugin, String worldName) {
+        super(WorldsTabComplete.WorldsArgument.BACKUP);
+
+        this.plugin = plugin;
+        this.worldName = worldName;
+    }
+
+    @Override
+    public void execute(Player player, String[] args) {
+        WorldManager worldManager = plugin.getWorldManager();
+        if (!worldManager.isPermitted(player, getArgument().getPermission(), worldName)) {
+            plugin.sendPermissionMessage(player);
+            return;
+        }
+
+        if (args.length < 2 || args.length > 4) {
+            Messages.sendMessage(player, "worlds_backup_usage");
+            return;
+        }
+
+        BuildWorld buildWorld = worldManager.getBuildWorld(worldName);
+        if (buildWorld == null) {
+            Messages.sendMessage(player, "worlds_backup_unknown_world");
+            return;
+        }
+
+        if (args.length == 2) {
+            createBackup(player, buildWorld);
+        } else if (args.length == 3 && args[2].equalsIgnoreCase("list")) {
+            listBackups(player, buildWorld);
+        } else if (args.length == 4 && args[2].equalsIgnoreCase("restore")) {
+            restoreBackup(player, buildWorld, args[3]);
+        } else {
+            Messages.sendMessage(player, "worlds_backup_usage");
+        }
+    }
+
+    private void createBackup(Player player, BuildWorld buildWorld) {
+        BackupManager backupManager = plugin.getWorldManager().getBackupManager();
+        if (backupManager.isRunning(buildWorld.getName())) {
+            Messages.sendMessage(player, "worlds_backup_running");
+            return;
+        }
+
+        Messages.sendMessage(player, "worlds_backup_started", new AbstractMap.SimpleEntry<>("%world%", buildWorld.getName()));
+        backupManager.backup(buildWorld, false).whenComplete((backup, throwable) -> {
+            if (throwable != null) {
+                plugin.getLogger().log(Level.SEVERE, "Unable to back up " + buildWorld.getName(), throwable);
+                Messages.sendMessage(player, "worlds_backup_error");
+                return;
+            }
+
+            Messages.sendMessage(player, "worlds_backup_created",
+                    new AbstractMap.SimpleEntry<>("%backup%", backup.getId()),
+                    new AbstractMap.SimpleEntry<>("%size%", FileUtils.formatSize(backup.getSize())),
+                    new AbstractMap.SimpleEntry<>("%new%", FileUtils.formatSize(backup.getStoredBytes()))
+            );
+        });
+    }
+
+    private void listBackups(Player player, BuildWorld buildWorld) {
+        List<WorldBackup> backups = plugin.getWorldManager().getBackupManager().getBackups(buildWorld.getName());
+        if (backups.isEmpty()) {
+            Messages.sendMessage(player, "worlds_backup_list_empty", new AbstractMap.SimpleEntry<>("%world%", buildWorld.getName()));
+            return;
+        }
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat(plugin.getConfigValues().getDateFormat());
+        Messages.sendMessage(player, "worlds_backup_list_title", new AbstractMap.SimpleEntry<>("%world%", buildWorld.getName()));
+        for (WorldBackup backup : backups) {
+            Messages.sendMessage(player, "worlds_backup_list_entry",
+                    new AbstractMap.SimpleEntry<>("%backup%", backup.getId()),
+                    new AbstractMap.SimpleEntry<>("%date%", dateFormat.format(new Date(backup.getCreationDate()))),
+                    new AbstractMap.SimpleEntry<>("%size%", FileUtils.formatSize(backup.getSize()))
+            );
+        }
+    }
+
+    private void restoreBackup(Player player, BuildWorld buildWorld, String id) {
+        BackupManager backupManager = plugin.getWorldManager().getBackupManager();
+        WorldBackup backup = backupManager.getBackup(buildWorld.getName(), id);
+        if (backup == null) {
+            Messages.sendMessage(player, "worlds_backup_unknown_backup");
+            return;
+        }
+
+        if (backupManager.isRunning(buildWorld.getName())) {
+            Messages.sendMessage(player, "worlds_backup_running");
+            return;
+        }
+
+        World bukkitWorld = buildWorld.getWorld();
+        if (bukkitWorld != null && !bukkitWorld.getPlayers().isEmpty()) {
+            Messages.sendMessage(player, "worlds_backup_restore_players");
+            return;
+        }
+
+        Messages.sendMessage(player, "worlds_backup_restore_started",
+                new AbstractMap.SimpleEntry<>("%backup%", backup.getId()),
+                new AbstractMap.SimpleEntry<>("%world%", buildWorld.getName())
+        );
+        backupManager.restore(buildWorld, backup).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                plugin.getLogger().log(Level.SEVERE, "Unable to restore backup " + backup.getId() + " of " + buildWorld.getName(), throwable);
+                Messages.sendMessage(player, "worlds_backup_restore_error");
+                return;
+            }
+
+            Messages.sendMessage(player, "worlds_backup_restore_finished", new AbstractMap.SimpleEntry<>("%world%", buildWorld.getName()));
+        });
+    }
+}
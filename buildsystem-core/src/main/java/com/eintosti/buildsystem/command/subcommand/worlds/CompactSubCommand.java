@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.command.subcommand.worlds;
+
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.Messages;
+import com.eintosti.buildsystem.command.subcommand.SubCommand;
+import com.eintosti.buildsystem.tabcomplete.WorldsTabComplete;
+import com.eintosti.buildsystem.util.FileUtils;
+import com.eintosti.buildsystem.world.BuildWorld;
+import com.eintosti.buildsystem.world.RegionCompactor;
+import com.eintosti.buildsystem.world.WorldManager;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.AbstractMap;
+import java.util.logging.Level;
+
+/**
+ * @author einTosti
+ */
+public class CompactSubCommand extends SubCommand {
+
+    private final BuildSystem plugin;
+    private final String worldName;
+
+    public CompactSubCommand(BuildSystem plugin, String worldName) {
+        super(WorldsTabComplete.WorldsArgument.COMPACT);
+
+        this.plugin = plugin;
+        this.worldName = worldName;
+    }
+
+    @Override
+    public void execute(Player player, String[] args) {
+        WorldManager worldManager = plugin.getWorldManager();
+        if (!worldManager.isPermitted(player, getArgument().getPermission(), worldName)) {
+            plugin.sendPermissionMessage(player);
+            return;
+        }
+
+        if (args.length != 2) {
+            Messages.sendMessage(player, "worlds_compact_usage");
+            return;
+        }
+
+        BuildWorld buildWorld = worldManager.getBuildWorld(worldName);
+        if (buildWorld == null) {
+            Messages.sendMessage(player, "worlds_compact_unknown_world");
+            return;
+        }
+
+        RegionCompactor regionCompactor = worldManager.getRegionCompactor();
+        if (!regionCompactor.isSupported(buildWorld)) {
+            Messages.sendMessage(player, "worlds_compact_unsupported_type");
+            return;
+        }
+
+        if (worldManager.getWorldArchiver().isArchived(worldName)) {
+            Messages.sendMessage(player, "worlds_compact_archived");
+            return;
+        }
+
+        if (regionCompactor.isRunning(worldName) || worldManager.getBackupManager().isRunning(worldName)) {
+            Messages.sendMessage(player, "worlds_compact_running");
+            return;
+        }
+
+        World bukkitWorld = buildWorld.getWorld();
+        if (bukkitWorld != null && !bukkitWorld.getPlayers().isEmpty()) {
+            Messages.sendMessage(player, "worlds_compact_players");
+            return;
+        }
+
+        Messages.sendMessage(player, "worlds_compact_started", new AbstractMap.SimpleEntry<>("%world%", worldName));
+        regionCompactor.compact(buildWorld).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                plugin.getLogger().log(Level.SEVERE, "Unable to compact " + worldName, throwable);
+                Messages.sendMessage(player, "worlds_compact_error");
+                return;
+            }
+
+            Messages.sendMessage(player, "worlds_compact_finished",
+                    new AbstractMap.SimpleEntry<>("%world%", worldName),
+                    new AbstractMap.SimpleEntry<>("%chunks%", result.getRemovedChunks()),
+                    new AbstractMap.SimpleEntry<>("%files%", result.getCompactedRegionFiles()),
+                    new AbstractMap.SimpleEntry<>("%size%", FileUtils.formatSize(result.getReclaimedBytes()))
+            );
+        });
+    }
+}
@@ -47,7 +47,7 @@ public class ImportAllSubCommand extends SubCommand {
         File worldContainer = Bukkit.getWorldContainer();
         String[] directories = worldContainer.list((dir, name) -> {
             File worldFolder = new File(dir, name);
-            if (!worldFolder.isDirectory()) {
+            if (!worldFolder.isDirectory() || name.startsWith(".")) {
                 return false;
             }
 
@@ -11,7 +11,9 @@ import com.eintosti.buildsystem.BuildSystem;
 import com.eintosti.buildsystem.Messages;
 import com.eintosti.buildsystem.command.subcommand.SubCommand;
 import com.eintosti.buildsystem.tabcomplete.WorldsTabComplete;
+import com.eintosti.buildsystem.util.FileUtils;
 import com.eintosti.buildsystem.world.BuildWorld;
+import com.eintosti.buildsystem.world.WorldArchiver;
 import com.eintosti.buildsystem.world.WorldManager;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -49,7 +51,7 @@ public class InfoSubCommand extends SubCommand {
             return;
         }
 
-        BuildWorld buildWorld = worldManager.getBuildWorld(playerWorld.getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(playerWorld);
         if (args.length != 2) {
             Messages.sendMessage(player, "worlds_info_usage");
             return;
@@ -80,10 +82,21 @@ public class InfoSubCommand extends SubCommand {
                 new AbstractMap.SimpleEntry<>("%physics%", buildWorld.isPhysics()),
                 new AbstractMap.SimpleEntry<>("%explosions%", buildWorld.isExplosions()),
                 new AbstractMap.SimpleEntry<>("%mobai%", buildWorld.isMobAI()),
-                new AbstractMap.SimpleEntry<>("%custom_spawn%", getCustomSpawn(buildWorld))
+                new AbstractMap.SimpleEntry<>("%custom_spawn%", getCustomSpawn(buildWorld)),
+                new AbstractMap.SimpleEntry<>("%compressed%", getCompressed(buildWorld))
         );
     }
 
+    private String getCompressed(BuildWorld buildWorld) {
+        WorldArchiver worldArchiver = plugin.getWorldManager().getWorldArchiver();
+        long savedBytes = worldArchiver.getSavedBytes(buildWorld.getName());
+        if (savedBytes < 0) {
+            return "-";
+        }
+
+        return FileUtils.formatSize(savedBytes) + " saved (" + FileUtils.formatSize(worldArchiver.getTotalSavedBytes()) + " in total)";
+    }
+
     private String getCustomSpawn(BuildWorld buildWorld) {
         if (buildWorld.getCustomSpawn() == null) {
             return "-";
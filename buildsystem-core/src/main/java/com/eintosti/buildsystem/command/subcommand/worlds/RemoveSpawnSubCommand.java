@@ -39,7 +39,7 @@ public class RemoveSpawnSubCommand extends SubCommand {
             return;
         }
 
-        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld());
         if (buildWorld == null) {
             Messages.sendMessage(player, "worlds_removespawn_world_not_imported");
             return;
@@ -9,12 +9,16 @@ package com.eintosti.buildsystem.config;
 
 import com.cryptomorin.xseries.XMaterial;
 import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.storage.StorageType;
+import com.eintosti.buildsystem.world.data.WorldType;
 import org.bukkit.Difficulty;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -33,6 +37,8 @@ public class ConfigValues {
     private XMaterial navigatorItem;
     private XMaterial worldEditWand;
     private Difficulty worldDifficulty;
+    private Set<WorldType> worldPoolTypes;
+    private StorageType storageType;
 
     private boolean archiveVanish;
     private boolean scoreboard;
@@ -44,6 +50,7 @@ public class ConfigValues {
     private boolean lockWeather;
     private boolean unloadWorlds;
     private boolean voidBlock;
+    private boolean templateCopyOnWrite;
     private boolean updateChecker;
     private boolean blockWorldEditNonBuilder;
     private boolean creatorIsBuilder;
@@ -60,9 +67,17 @@ public class ConfigValues {
     private int noonTime;
     private int nightTime;
     private int worldBorderSize;
-    private int importDelay;
+    private int importTickBudget;
     private int maxPublicWorldAmount;
     private int maxPrivateWorldAmount;
+    private int maxLoadedWorlds;
+    private int worldPoolSize;
+    private int archiveCompressAfterDays;
+    private int backupIntervalMinutes;
+    private int maxBackups;
+    private int backupMaxAgeDays;
+
+    private double unloadMemoryThreshold;
 
     private Map<String, String> defaultGameRules;
     private Set<String> blackListedWorldsToUnload;
@@ -95,6 +110,9 @@ public class ConfigValues {
         this.navigatorItem = XMaterial.valueOf(config.getString("settings.navigator.item", "CLOCK"));
         this.giveNavigatorOnJoin = config.getBoolean("settings.navigator.give-item-on-join", true);
 
+        // Storage
+        this.storageType = StorageType.matchStorageType(config.getString("storage.type", "yaml"));
+
         // World
         this.defaultPublicPermission = config.getString("world.default.permission.public", "-");
         this.defaultPrivatePermission = config.getString("world.default.permission.private", "-");
@@ -131,13 +149,29 @@ public class ConfigValues {
         this.unloadWorlds = config.getBoolean("world.unload.enabled", false);
         this.timeUntilUnload = config.getString("world.unload.time-until-unload", "01:00:00");
         this.blackListedWorldsToUnload = new HashSet<>(config.getStringList("world.unload.blacklisted-worlds"));
+        this.maxLoadedWorlds = config.getInt("world.unload.max-loaded-worlds", -1);
+        this.unloadMemoryThreshold = config.getDouble("world.unload.memory-threshold", 0.85);
 
-        this.importDelay = config.getInt("world.import-all.delay", 30);
+        this.importTickBudget = config.getInt("world.import-all.tick-budget", 10);
 
         this.maxPublicWorldAmount = config.getInt("world.max-amount.public", -1);
         this.maxPrivateWorldAmount = config.getInt("world.max-amount.private", -1);
 
         this.voidBlock = config.getBoolean("world.void-block", true);
+        this.templateCopyOnWrite = config.getBoolean("world.templates.copy-on-write", true);
+        this.worldPoolSize = config.getInt("world.pool.size", 0);
+        this.archiveCompressAfterDays = config.getInt("world.archive.compress-after-days", -1);
+        this.backupIntervalMinutes = config.getInt("world.backup.interval-minutes", -1);
+        this.maxBackups = config.getInt("world.backup.max-backups", 10);
+        this.backupMaxAgeDays = config.getInt("world.backup.max-age-days", 30);
+        this.worldPoolTypes = EnumSet.noneOf(WorldType.class);
+        for (String type : config.getStringList("world.pool.types")) {
+            try {
+                this.worldPoolTypes.add(WorldType.valueOf(type.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Unknown world type in world.pool.types: " + type);
+            }
+        }
     }
 
     public String getDateFormat() {
@@ -148,6 +182,10 @@ public class ConfigValues {
         return worldDifficulty;
     }
 
+    public StorageType getStorageType() {
+        return storageType;
+    }
+
     public long getTimeUntilUnload() {
         String[] timeArray = timeUntilUnload.split(":");
         int hours = Integer.parseInt(timeArray[0]);
@@ -192,10 +230,67 @@ public class ConfigValues {
         return unloadWorlds;
     }
 
+    /**
+     * @return The maximum amount of build worlds which can be loaded at once, or {@code -1} if unlimited
+     */
+    public int getMaxLoadedWorlds() {
+        return maxLoadedWorlds;
+    }
+
+    /**
+     * @return The fraction of the heap which, when still in use after a garbage collection, causes idle worlds to be
+     * unloaded, or a value {@code <= 0} to disable this
+     */
+    public double getUnloadMemoryThreshold() {
+        return unloadMemoryThreshold;
+    }
+
     public boolean isVoidBlock() {
         return voidBlock;
     }
 
+    public boolean isTemplateCopyOnWrite() {
+        return templateCopyOnWrite;
+    }
+
+    public int getWorldPoolSize() {
+        return worldPoolSize;
+    }
+
+    public Set<WorldType> getWorldPoolTypes() {
+        return worldPoolTypes;
+    }
+
+    /**
+     * @return The amount of days after which the folder of an unloaded archived world is compressed, or a value
+     * {@code <= 0} to disable this
+     */
+    public int getArchiveCompressAfterDays() {
+        return archiveCompressAfterDays;
+    }
+
+    /**
+     * @return The interval in minutes at which all changed worlds are backed up, or a value {@code <= 0} to disable
+     * this
+     */
+    public int getBackupIntervalMinutes() {
+        return backupIntervalMinutes;
+    }
+
+    /**
+     * @return The maximum amount of backups which are kept per world, or a value {@code <= 0} for no limit
+     */
+    public int getMaxBackups() {
+        return maxBackups;
+    }
+
+    /**
+     * @return The amount of days after which a backup is deleted, or a value {@code <= 0} for no limit
+     */
+    public int getBackupMaxAgeDays() {
+        return backupMaxAgeDays;
+    }
+
     public boolean isUpdateChecker() {
         return updateChecker;
     }
@@ -265,8 +360,8 @@ public class ConfigValues {
         return worldBorderSize;
     }
 
-    public int getImportDelay() {
-        return importDelay;
+    public int getImportTickBudget() {
+        return importTickBudget;
     }
 
     public int getMaxWorldAmount(boolean privateWorld) {
@@ -20,10 +20,12 @@ import java.io.IOException;
  */
 public abstract class ConfigurationFile {
 
+    private final ConfigurationWriter writer;
     private final File file;
     private final FileConfiguration configuration;
 
     public ConfigurationFile(BuildSystem plugin, String fileName) {
+        this.writer = plugin.getConfigurationWriter();
         this.file = new File(plugin.getDataFolder(), fileName);
         this.configuration = YamlConfiguration.loadConfiguration(file);
         loadFile();
@@ -43,12 +45,12 @@ public abstract class ConfigurationFile {
         }
     }
 
+    /**
+     * Takes a snapshot of the configuration and hands it to the {@link ConfigurationWriter}, which writes it to disk
+     * in the background. Must be called from the thread which modifies the configuration.
+     */
     public void saveFile() {
-        try {
-            configuration.save(file);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        writer.submit(file, configuration.saveToString());
     }
 
     public FileConfiguration getFile() {
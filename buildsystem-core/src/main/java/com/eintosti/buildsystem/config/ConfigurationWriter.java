@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.config;
+
+import com.eintosti.buildsystem.BuildSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes configuration files on a single background thread.
+ * <p>
+ * Callers submit an immutable snapshot of a file's content. If a file is submitted again before its previous snapshot
+ * was written, only the latest snapshot is written. Every write replaces the file atomically, so that a crash during
+ * the write never leaves a truncated file behind.
+ *
+ * @author einTosti
+ */
+public class ConfigurationWriter {
+
+    private static final long WRITE_DELAY_MILLIS = 1000L;
+
+    private final Logger logger;
+    private final ScheduledExecutorService executor;
+    private final Map<File, String> pendingWrites;
+
+    public ConfigurationWriter(BuildSystem plugin) {
+        this.logger = plugin.getLogger();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BuildSystem Configuration Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pendingWrites = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Schedules the given content to be written to a file.
+     * Once the executor has been shut down, the content is written synchronously instead.
+     *
+     * @param file    The file to write
+     * @param content The content to write
+     */
+    public void submit(File file, String content) {
+        if (pendingWrites.put(file, content) != null) {
+            // A write for this file is already scheduled and will pick up the latest content
+            return;
+        }
+
+        try {
+            executor.schedule(() -> write(file), WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            write(file);
+        }
+    }
+
+    /**
+     * Writes all pending snapshots and waits until they are on disk.
+     */
+    public void flush() {
+        try {
+            executor.submit(this::writeAll).get();
+        } catch (RejectedExecutionException e) {
+            writeAll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.log(Level.SEVERE, "Unable to write configuration files", e.getCause());
+        }
+    }
+
+    /**
+     * Writes all pending snapshots and stops the background thread.
+     * Files submitted afterwards are written synchronously.
+     */
+    public void shutdown() {
+        flush();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Timed out while waiting for configuration files to be written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeAll();
+    }
+
+    private void writeAll() {
+        new ArrayList<>(pendingWrites.keySet()).forEach(this::write);
+    }
+
+    private void write(File file) {
+        String content = pendingWrites.remove(file);
+        if (content == null) {
+            return;
+        }
+
+        try {
+            writeAtomically(file, content);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Unable to write " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Writes the given content to a file by replacing it with a fully written temporary file.
+     *
+     * @param target  The file to write
+     * @param content The content to write
+     * @throws IOException If the file could not be written
+     */
+    static void writeAtomically(File target, String content) throws IOException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Couldn't create directory: " + parent.getName());
+        }
+
+        Path temporary = Files.createTempFile(parent.toPath(), target.getName(), ".tmp");
+        try {
+            Files.write(temporary, content.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temporary, target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -9,20 +9,90 @@ package com.eintosti.buildsystem.config;
 
 import com.eintosti.buildsystem.BuildSystem;
 import com.eintosti.buildsystem.player.BuildPlayer;
+import com.eintosti.buildsystem.storage.PlayerStorage;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * @author einTosti
  */
-public class PlayersConfig extends ConfigurationFile {
+public class PlayersConfig extends ConfigurationFile implements PlayerStorage {
 
     public PlayersConfig(BuildSystem plugin) {
         super(plugin, "players.yml");
     }
 
-    public void savePlayer(UUID uuid, BuildPlayer buildPlayer) {
-        getFile().set("players." + uuid.toString(), buildPlayer.serialize());
+    /**
+     * Loads the data of all players in the file.
+     *
+     * @return The data of each player, keyed by the player's unique-id
+     */
+    public synchronized Map<UUID, ConfigurationSection> loadPlayers() {
+        Map<UUID, ConfigurationSection> players = new LinkedHashMap<>();
+        ConfigurationSection configurationSection = getFile().getConfigurationSection("players");
+        if (configurationSection == null) {
+            return players;
+        }
+
+        for (String uuid : configurationSection.getKeys(false)) {
+            ConfigurationSection playerSection = configurationSection.getConfigurationSection(uuid);
+            if (playerSection != null) {
+                players.put(UUID.fromString(uuid), playerSection);
+            }
+        }
+        return players;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned section is a copy, so that it can be read while the file is modified on the main thread.
+     */
+    @Override
+    @Nullable
+    public synchronized ConfigurationSection loadPlayer(UUID uuid) {
+        ConfigurationSection playerSection = getFile().getConfigurationSection("players." + uuid.toString());
+        if (playerSection == null) {
+            return null;
+        }
+
+        YamlConfiguration copy = new YamlConfiguration();
+        playerSection.getValues(true).forEach((path, value) -> {
+            if (!(value instanceof ConfigurationSection)) {
+                copy.set(path, value);
+            }
+        });
+        return copy;
+    }
+
+    @Override
+    public synchronized void savePlayer(BuildPlayer buildPlayer) {
+        setPlayer(buildPlayer);
         saveFile();
     }
+
+    /**
+     * Saves all given players and writes the file once.
+     *
+     * @param buildPlayers The players to save
+     */
+    @Override
+    public synchronized void savePlayers(Collection<BuildPlayer> buildPlayers) {
+        buildPlayers.forEach(this::setPlayer);
+        saveFile();
+    }
+
+    /**
+     * Nested values are stored as sections rather than maps, so that {@link #loadPlayer(UUID)} can read them back
+     * without reloading the file.
+     */
+    private void setPlayer(BuildPlayer buildPlayer) {
+        getFile().createSection("players." + buildPlayer.getUniqueId().toString(), buildPlayer.serialize());
+    }
 }
\ No newline at end of file
@@ -7,58 +7,109 @@
  */
 package com.eintosti.buildsystem.config;
 
-import com.cryptomorin.xseries.XMaterial;
 import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.storage.WorldStorage;
 import com.eintosti.buildsystem.world.BuildWorld;
-import com.eintosti.buildsystem.world.BuildWorldCreator;
-import com.eintosti.buildsystem.world.WorldManager;
-import org.bukkit.World;
+import com.eintosti.buildsystem.world.data.WorldStatus;
+import org.bukkit.configuration.ConfigurationSection;
 
-import java.util.Iterator;
-import java.util.logging.Logger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
 
 /**
  * @author einTosti
  */
-public class WorldConfig extends ConfigurationFile {
-
-    private final BuildSystem plugin;
+public class WorldConfig extends ConfigurationFile implements WorldStorage {
 
     public WorldConfig(BuildSystem plugin) {
         super(plugin, "worlds.yml");
-        this.plugin = plugin;
     }
 
-    public void saveWorld(BuildWorld buildWorld) {
-        getFile().set("worlds." + buildWorld.getName(), buildWorld.serialize());
-        saveFile();
-    }
+    @Override
+    public Map<String, ConfigurationSection> loadWorlds() {
+        Map<String, ConfigurationSection> worlds = new LinkedHashMap<>();
+        ConfigurationSection configurationSection = getFile().getConfigurationSection("worlds");
+        if (configurationSection == null) {
+            return worlds;
+        }
 
-    public void loadWorlds(WorldManager worldManager) {
-        Logger logger = plugin.getLogger();
-        if (plugin.getConfigValues().isUnloadWorlds()) {
-            logger.info("*** \"Unload worlds\" has been enabled in the config. Therefore worlds will not be pre-loaded ***");
-            return;
+        for (String worldName : configurationSection.getKeys(false)) {
+            ConfigurationSection worldSection = configurationSection.getConfigurationSection(worldName);
+            if (worldSection != null) {
+                worlds.put(worldName, worldSection);
+            }
         }
+        return worlds;
+    }
+
+    @Override
+    public List<String> getWorldNames(UUID creatorId) {
+        String id = creatorId.toString();
+        return getWorldNames(worldSection -> id.equals(worldSection.getString("creator-id")));
+    }
 
-        logger.info("*** All worlds will be loaded now ***");
-        Iterator<BuildWorld> iterator = worldManager.getBuildWorlds().iterator();
-        while (iterator.hasNext()) {
-            BuildWorld buildWorld = iterator.next();
-            String worldName = buildWorld.getName();
-            World world = new BuildWorldCreator(plugin, buildWorld).generateBukkitWorld();
-            if (world == null) {
-                logger.info("✗ Unable to load world: " + worldName);
-                iterator.remove();
-                continue;
+    @Override
+    public List<String> getWorldNames(WorldStatus status) {
+        return getWorldNames(worldSection -> status.name().equals(worldSection.getString("status")));
+    }
+
+    private List<String> getWorldNames(Predicate<ConfigurationSection> filter) {
+        List<String> worldNames = new ArrayList<>();
+        loadWorlds().forEach((worldName, worldSection) -> {
+            if (filter.test(worldSection)) {
+                worldNames.add(worldName);
             }
+        });
+        return worldNames;
+    }
 
-            if (buildWorld.getMaterial() == XMaterial.PLAYER_HEAD) {
-                plugin.getSkullCache().cacheSkull(worldName);
+    @Override
+    public void saveWorld(BuildWorld buildWorld) {
+        setWorld(buildWorld);
+        saveFile();
+    }
+
+    /**
+     * Saves all worlds which have been modified since they were last saved.
+     * The file is only written once, and only if at least one world has changed.
+     *
+     * @param buildWorlds The worlds to save
+     */
+    @Override
+    public void saveWorlds(Collection<BuildWorld> buildWorlds) {
+        boolean modified = false;
+        for (BuildWorld buildWorld : buildWorlds) {
+            if (buildWorld.isDirty()) {
+                setWorld(buildWorld);
+                modified = true;
             }
+        }
 
-            logger.info("✔ World loaded: " + worldName);
+        if (modified) {
+            saveFile();
         }
-        logger.info("*** All worlds have been loaded ***");
     }
-}
\ No newline at end of file
+
+    @Override
+    public void deleteWorld(String worldName) {
+        getFile().set("worlds." + worldName, null);
+        saveFile();
+    }
+
+    @Override
+    public void renameWorld(String oldName, BuildWorld buildWorld) {
+        getFile().set("worlds." + oldName, null);
+        setWorld(buildWorld);
+        saveFile();
+    }
+
+    private void setWorld(BuildWorld buildWorld) {
+        getFile().set("worlds." + buildWorld.getName(), buildWorld.serialize());
+        buildWorld.setDirty(false);
+    }
+}
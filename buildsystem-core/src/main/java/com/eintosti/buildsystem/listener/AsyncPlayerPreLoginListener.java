@@ -42,12 +42,15 @@ public class AsyncPlayerPreLoginListener implements Listener {
 
     @EventHandler
     public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
-        UUID uuid = event.getUniqueId();
-        BuildPlayer buildPlayer = playerManager.getBuildPlayer(uuid);
-        if (buildPlayer == null) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
             return;
         }
 
+        UUID uuid = event.getUniqueId();
+        BuildPlayer buildPlayer = playerManager.loadBuildPlayer(uuid);
+        // Released again if the player doesn't end up joining, e.g. because the login is denied later on
+        playerManager.scheduleUnload(uuid);
+
         Settings settings = buildPlayer.getSettings();
         if (settings.isSpawnTeleport() && spawnManager.spawnExists()) {
             return;
@@ -62,7 +65,7 @@ public class AsyncPlayerPreLoginListener implements Listener {
         if (buildWorld == null) {
             buildPlayer.setLogoutLocation(null);
         } else {
-            Bukkit.getScheduler().runTask(plugin, () -> buildWorld.load());
+            Bukkit.getScheduler().runTask(plugin, () -> worldManager.queueLoad(buildWorld, null));
         }
     }
 }
\ No newline at end of file
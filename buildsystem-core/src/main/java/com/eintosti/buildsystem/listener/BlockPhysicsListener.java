@@ -50,7 +50,7 @@ public class BlockPhysicsListener implements Listener {
     public void onBlockPhysics(BlockPhysicsEvent event) {
         Block block = event.getBlock();
         World bukkitWorld = block.getWorld();
-        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld.getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld);
 
         if (buildWorld == null || buildWorld.isPhysics()) {
             return;
@@ -94,7 +94,7 @@ public class BlockPhysicsListener implements Listener {
     @EventHandler
     public void onLeavesDecay(LeavesDecayEvent event) {
         Block block = event.getBlock();
-        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld());
 
         if (buildWorld != null && !buildWorld.isPhysics()) {
             event.setCancelled(true);
@@ -104,7 +104,7 @@ public class BlockPhysicsListener implements Listener {
     @EventHandler
     public void onBlockFade(BlockFadeEvent event) {
         Block block = event.getBlock();
-        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld());
 
         if (buildWorld != null && !buildWorld.isPhysics()) {
             event.setCancelled(true);
@@ -114,7 +114,7 @@ public class BlockPhysicsListener implements Listener {
     @EventHandler
     public void onBlockForm(BlockFormEvent event) {
         Block block = event.getBlock();
-        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld());
 
         if (buildWorld != null && !buildWorld.isPhysics()) {
             event.setCancelled(true);
@@ -124,7 +124,7 @@ public class BlockPhysicsListener implements Listener {
     @EventHandler
     public void onBlockFromTo(BlockFromToEvent event) {
         Block block = event.getBlock();
-        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld());
 
         if (buildWorld != null && !buildWorld.isPhysics()) {
             event.setCancelled(true);
@@ -134,7 +134,7 @@ public class BlockPhysicsListener implements Listener {
     @EventHandler
     public void onBlockGrow(BlockGrowEvent event) {
         Block block = event.getBlock();
-        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld());
 
         if (buildWorld != null && !buildWorld.isPhysics()) {
             event.setCancelled(true);
@@ -144,7 +144,7 @@ public class BlockPhysicsListener implements Listener {
     @EventHandler
     public void onBlockSpread(BlockSpreadEvent event) {
         Block block = event.getBlock();
-        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld());
 
         if (buildWorld != null && !buildWorld.isPhysics()) {
             event.setCancelled(true);
@@ -154,7 +154,7 @@ public class BlockPhysicsListener implements Listener {
     @EventHandler
     public void onEntityChangeBlock(EntityChangeBlockEvent event) {
         Block block = event.getBlock();
-        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(block.getWorld());
 
         if (buildWorld == null || buildWorld.isPhysics()) {
             return;
@@ -190,7 +190,7 @@ public class BlockPhysicsListener implements Listener {
     public void onBlockExplode(BlockExplodeEvent event) {
         Block block = event.getBlock();
         World bukkitWorld = block.getWorld();
-        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld.getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld);
 
         if (buildWorld != null && !buildWorld.isExplosions()) {
             event.setCancelled(true);
@@ -201,7 +201,7 @@ public class BlockPhysicsListener implements Listener {
     public void onEntityExplode(EntityExplodeEvent event) {
         Location location = event.getLocation();
         World bukkitWorld = location.getWorld();
-        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld.getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld);
 
         if (buildWorld != null && !buildWorld.isExplosions()) {
             event.setCancelled(true);
@@ -24,7 +24,7 @@ public class BuildWorldResetUnloadListener implements Listener {
     @EventHandler
     public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
         World from = event.getFrom();
-        BuildWorld buildWorld = worldManager.getBuildWorld(from.getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(from);
         if (buildWorld != null) {
             buildWorld.resetUnloadTask();
         }
@@ -33,7 +33,7 @@ public class BuildWorldResetUnloadListener implements Listener {
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         World from = event.getPlayer().getWorld();
-        BuildWorld buildWorld = worldManager.getBuildWorld(from.getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(from);
         if (buildWorld != null) {
             buildWorld.resetUnloadTask();
         }
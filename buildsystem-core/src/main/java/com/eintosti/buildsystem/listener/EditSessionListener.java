@@ -45,7 +45,7 @@ public class EditSessionListener implements Listener {
             return;
         }
 
-        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld());
         if (buildWorld == null) {
             return;
         }
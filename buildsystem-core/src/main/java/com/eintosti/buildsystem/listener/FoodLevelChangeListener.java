@@ -37,7 +37,7 @@ public class FoodLevelChangeListener implements Listener {
 
         Player player = (Player) event.getEntity();
         World bukkitWorld = player.getWorld();
-        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld.getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(bukkitWorld);
 
         if (buildWorld != null && buildWorld.getStatus() == WorldStatus.ARCHIVE) {
             event.setCancelled(true);
@@ -74,7 +74,7 @@ public class PlayerChangedWorldListener implements Listener {
         Player player = event.getPlayer();
         String worldName = player.getWorld().getName();
 
-        BuildWorld oldWorld = worldManager.getBuildWorld(event.getFrom().getName());
+        BuildWorld oldWorld = worldManager.getBuildWorld(event.getFrom());
         if (oldWorld != null && configValues.isUnloadWorlds()) {
             oldWorld.resetUnloadTask();
         }
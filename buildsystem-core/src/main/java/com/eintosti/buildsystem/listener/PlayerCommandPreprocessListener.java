@@ -256,7 +256,7 @@ public class PlayerCommandPreprocessListener implements Listener {
                 return;
             }
 
-            BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld().getName());
+            BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld());
             if (buildWorld == null) {
                 return;
             }
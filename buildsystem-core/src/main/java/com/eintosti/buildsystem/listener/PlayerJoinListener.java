@@ -17,6 +17,7 @@ import com.eintosti.buildsystem.player.PlayerManager;
 import com.eintosti.buildsystem.settings.Settings;
 import com.eintosti.buildsystem.settings.SettingsManager;
 import com.eintosti.buildsystem.util.InventoryUtil;
+import com.eintosti.buildsystem.util.UUIDFetcher;
 import com.eintosti.buildsystem.util.external.UpdateChecker;
 import com.eintosti.buildsystem.world.BuildWorld;
 import com.eintosti.buildsystem.world.SpawnManager;
@@ -75,6 +76,7 @@ public class PlayerJoinListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         plugin.getSkullCache().cacheSkull(player.getName());
+        UUIDFetcher.cache(player.getName(), player.getUniqueId());
 
         BuildPlayer buildPlayer = playerManager.createBuildPlayer(player);
         manageHidePlayer(player, buildPlayer);
@@ -97,7 +99,17 @@ public class PlayerJoinListener implements Listener {
         } else {
             LogoutLocation logoutLocation = buildPlayer.getLogoutLocation();
             if (logoutLocation != null) {
-                PaperLib.teleportAsync(player, logoutLocation.getLocation());
+                BuildWorld logoutWorld = worldManager.getBuildWorld(logoutLocation.getWorldName());
+                if (logoutWorld != null) {
+                    // The world was queued to be loaded when the player logged in, or has to be kept from being unloaded
+                    worldManager.queueLoad(logoutWorld, player).thenAccept(world -> {
+                        if (player.isOnline()) {
+                            PaperLib.teleportAsync(player, logoutLocation.getLocation());
+                        }
+                    });
+                } else {
+                    PaperLib.teleportAsync(player, logoutLocation.getLocation());
+                }
             }
         }
 
@@ -77,6 +77,7 @@ public class PlayerQuitListener implements Listener {
         playerManager.getBuildModePlayers().remove(player.getUniqueId());
 
         manageHidePlayer(player);
+        playerManager.unloadBuildPlayer(player);
     }
 
     @SuppressWarnings("deprecation")
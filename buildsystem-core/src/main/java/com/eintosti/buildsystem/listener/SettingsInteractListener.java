@@ -300,7 +300,7 @@ public class SettingsInteractListener implements Listener {
             return true;
         }
 
-        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld());
         if (buildWorld == null) {
             return true;
         }
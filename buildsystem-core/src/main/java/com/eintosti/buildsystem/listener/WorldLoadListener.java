@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.listener;
+
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.event.world.BuildWorldLoadEvent;
+import com.eintosti.buildsystem.event.world.BuildWorldUnloadEvent;
+import com.eintosti.buildsystem.world.BuildWorld;
+import com.eintosti.buildsystem.world.WorldManager;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Keeps the link between loaded {@link World}s and their {@link BuildWorld}s up to date and makes sure no more worlds
+ * than allowed are loaded.
+ *
+ * @author einTosti
+ */
+public class WorldLoadListener implements Listener {
+
+    private final WorldManager worldManager;
+
+    public WorldLoadListener(BuildSystem plugin) {
+        this.worldManager = plugin.getWorldManager();
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        worldManager.linkBukkitWorld(event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        worldManager.unlinkBukkitWorld(event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBuildWorldLoad(BuildWorldLoadEvent event) {
+        World bukkitWorld = event.getBuildWorld().getWorld();
+        if (bukkitWorld != null) {
+            worldManager.linkBukkitWorld(bukkitWorld);
+        }
+        worldManager.getWorldUnloadPolicy().enforceLimit();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBuildWorldUnload(BuildWorldUnloadEvent event) {
+        World bukkitWorld = event.getBuildWorld().getWorld();
+        if (bukkitWorld != null && Bukkit.getWorld(bukkitWorld.getUID()) == null) {
+            worldManager.unlinkBukkitWorld(bukkitWorld);
+        }
+    }
+}
@@ -49,7 +49,7 @@ public class WorldManipulateListener implements Listener {
         }
 
         Player player = event.getPlayer();
-        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld());
         if (buildWorld == null) {
             return;
         }
@@ -66,7 +66,7 @@ public class WorldManipulateListener implements Listener {
         }
 
         Player player = event.getPlayer();
-        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld());
         if (buildWorld == null) {
             return;
         }
@@ -83,7 +83,7 @@ public class WorldManipulateListener implements Listener {
         }
         Player player = (Player) event.getDamager();
 
-        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld());
         if (buildWorld == null) {
             return;
         }
@@ -96,7 +96,7 @@ public class WorldManipulateListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerArmorStandManipulate(PlayerArmorStandManipulateEvent event) {
         Player player = event.getPlayer();
-        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld());
         if (buildWorld == null) {
             return;
         }
@@ -112,7 +112,7 @@ public class WorldManipulateListener implements Listener {
         }
 
         Player player = event.getPlayer();
-        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld().getName());
+        BuildWorld buildWorld = worldManager.getBuildWorld(player.getWorld());
         if (buildWorld == null) {
             return;
         }
@@ -32,8 +32,8 @@ public class ArchiveInventory extends FilteredWorldsInventory {
     }
 
     @Override
-    protected Inventory createInventory(Player player) {
-        Inventory inventory = super.createInventory(player);
+    protected Inventory createInventory(Player player, int numOfWorlds) {
+        Inventory inventory = super.createInventory(player, numOfWorlds);
         inventoryUtil.addGlassPane(plugin, player, inventory, 49);
         return inventory;
     }
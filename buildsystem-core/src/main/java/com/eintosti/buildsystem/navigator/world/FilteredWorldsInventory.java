@@ -26,6 +26,7 @@ import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -57,25 +58,33 @@ public class FilteredWorldsInventory extends PaginatedInventory implements Liste
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
 
-    protected Inventory createInventory(Player player) {
+    /**
+     * Creates a page of the inventory.
+     *
+     * @param player      The player to show the inventory to
+     * @param numOfWorlds The amount of worlds that are to be displayed in the inventory
+     * @return The page
+     */
+    protected Inventory createInventory(Player player, int numOfWorlds) {
         Inventory inventory = Bukkit.createInventory(null, 54, Messages.getString(inventoryName));
 
-        int numOfPages = (numOfWorlds(player) / MAX_WORLDS) + (numOfWorlds(player) % MAX_WORLDS == 0 ? 0 : 1);
+        int numOfPages = (numOfWorlds / MAX_WORLDS) + (numOfWorlds % MAX_WORLDS == 0 ? 0 : 1);
         inventoryUtil.fillMultiInvWithGlass(plugin, inventory, player, getInvIndex(player), numOfPages);
 
         return inventory;
     }
 
     /**
-     * Gets the amount of worlds that are to be displayed in the inventory.
+     * Gets the worlds that are to be displayed in the inventory.
+     * Only worlds with a matching visibility and status are checked, using the indexes kept by the {@link WorldManager}.
      *
      * @param player The player to show the inventory to
-     * @return The amount of worlds
+     * @return The list of worlds
      */
-    private int numOfWorlds(Player player) {
-        return (int) worldManager.getBuildWorlds().stream()
-                .filter(buildWorld -> isValidWorld(player, buildWorld))
-                .count();
+    private List<BuildWorld> getValidWorlds(Player player) {
+        List<BuildWorld> validWorlds = worldManager.getBuildWorlds(visibility, validStatus);
+        validWorlds.removeIf(buildWorld -> !isValidWorld(player, buildWorld));
+        return validWorlds;
     }
 
     /**
@@ -97,11 +106,12 @@ public class FilteredWorldsInventory extends PaginatedInventory implements Liste
     }
 
     private void addWorlds(Player player) {
-        int numWorlds = numOfWorlds(player);
+        List<BuildWorld> validWorlds = getValidWorlds(player);
+        int numWorlds = validWorlds.size();
         int numInventories = (numWorlds % MAX_WORLDS == 0 ? numWorlds : numWorlds + 1) != 0 ? (numWorlds % MAX_WORLDS == 0 ? numWorlds : numWorlds + 1) : 1;
 
         inventories = new Inventory[numInventories];
-        Inventory inventory = createInventory(player);
+        Inventory inventory = createInventory(player, numWorlds);
 
         int index = 0;
         inventories[index] = inventory;
@@ -111,14 +121,12 @@ public class FilteredWorldsInventory extends PaginatedInventory implements Liste
         }
 
         int columnWorld = 9, maxColumnWorld = 44;
-        for (BuildWorld buildWorld : inventoryUtil.sortWorlds(worldManager, plugin.getSettingsManager().getSettings(player))) {
-            if (isValidWorld(player, buildWorld)) {
-                inventoryUtil.addWorldItem(player, inventory, columnWorld++, buildWorld);
-            }
+        for (BuildWorld buildWorld : inventoryUtil.sortWorlds(validWorlds, plugin.getSettingsManager().getSettings(player))) {
+            inventoryUtil.addWorldItem(player, inventory, columnWorld++, buildWorld);
 
             if (columnWorld > maxColumnWorld) {
                 columnWorld = 9;
-                inventory = createInventory(player);
+                inventory = createInventory(player, numWorlds);
                 inventories[++index] = inventory;
             }
         }
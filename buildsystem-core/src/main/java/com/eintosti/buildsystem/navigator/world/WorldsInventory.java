@@ -36,8 +36,8 @@ public class WorldsInventory extends FilteredWorldsInventory {
     }
 
     @Override
-    protected Inventory createInventory(Player player) {
-        Inventory inventory = super.createInventory(player);
+    protected Inventory createInventory(Player player, int numOfWorlds) {
+        Inventory inventory = super.createInventory(player, numOfWorlds);
         if (playerManager.canCreateWorld(player, super.getVisibility())) {
             addWorldCreateItem(inventory, player);
         }
@@ -13,7 +13,6 @@ import com.cryptomorin.xseries.messages.ActionBar;
 import com.eintosti.buildsystem.BuildSystem;
 import com.eintosti.buildsystem.Messages;
 import com.eintosti.buildsystem.config.ConfigValues;
-import com.eintosti.buildsystem.config.PlayersConfig;
 import com.eintosti.buildsystem.navigator.NavigatorInventoryType;
 import com.eintosti.buildsystem.navigator.NavigatorType;
 import com.eintosti.buildsystem.navigator.WorldSort;
@@ -21,6 +20,8 @@ import com.eintosti.buildsystem.navigator.world.FilteredWorldsInventory.Visibili
 import com.eintosti.buildsystem.settings.DesignColor;
 import com.eintosti.buildsystem.settings.Settings;
 import com.eintosti.buildsystem.settings.SettingsManager;
+import com.eintosti.buildsystem.storage.PlayerStorage;
+import com.eintosti.buildsystem.storage.StorageException;
 import com.eintosti.buildsystem.util.InventoryUtil;
 import com.eintosti.buildsystem.world.BuildWorld;
 import com.eintosti.buildsystem.world.WorldManager;
@@ -28,7 +29,6 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
@@ -36,16 +36,19 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.permissions.PermissionAttachmentInfo;
 import org.bukkit.potion.PotionEffectType;
+import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
 
 /**
  * @author einTosti
@@ -54,22 +57,33 @@ public class PlayerManager {
 
     private static final double MIN_HEIGHT = -0.16453003708696978;
     private static final double MAX_HEIGHT = 0.16481381407766063;
+    /**
+     * The amount of ticks a player's data is kept in memory after they left the server.
+     */
+    private static final long UNLOAD_DELAY = 20L * 60 * 5;
 
     private final BuildSystem plugin;
-    private final PlayersConfig playersConfig;
+    private final PlayerStorage playerStorage;
     private final ConfigValues configValues;
 
     private final Map<UUID, BuildPlayer> buildPlayers;
+    private final Map<UUID, BukkitTask> unloadTasks;
+    /**
+     * Players whose stored data could not be loaded and who therefore must not be saved.
+     */
+    private final Set<UUID> unreadablePlayers;
 
     private final Set<Player> openNavigator;
     private final Set<UUID> buildModePlayers;
 
     public PlayerManager(BuildSystem plugin) {
         this.plugin = plugin;
-        this.playersConfig = new PlayersConfig(plugin);
+        this.playerStorage = plugin.getPlayerStorage();
         this.configValues = plugin.getConfigValues();
 
-        this.buildPlayers = new HashMap<>();
+        this.buildPlayers = new ConcurrentHashMap<>();
+        this.unloadTasks = new ConcurrentHashMap<>();
+        this.unreadablePlayers = ConcurrentHashMap.newKeySet();
 
         this.openNavigator = new HashSet<>();
         this.buildModePlayers = new HashSet<>();
@@ -83,8 +97,109 @@ public class PlayerManager {
         return buildPlayer;
     }
 
+    /**
+     * Gets the {@link BuildPlayer} of an online player, loading it from storage if it has not been loaded yet.
+     *
+     * @param player The player
+     * @return The build player
+     */
     public BuildPlayer createBuildPlayer(Player player) {
-        return createBuildPlayer(player.getUniqueId(), new Settings());
+        cancelUnload(player.getUniqueId());
+        return loadBuildPlayer(player.getUniqueId());
+    }
+
+    /**
+     * Gets the {@link BuildPlayer} with the given unique-id, loading it from storage if it has not been loaded yet.
+     * Players who have never been saved receive the default settings.
+     * <p>
+     * May be called from any thread. Loading blocks until the storage has returned the data, so this should be called
+     * asynchronously, e.g. in {@link org.bukkit.event.player.AsyncPlayerPreLoginEvent}.
+     * <p>
+     * If the stored data cannot be read, the player receives the default settings as well, but these are never saved so
+     * that they cannot replace the stored data.
+     *
+     * @param uuid The unique-id of the player
+     * @return The build player
+     */
+    public BuildPlayer loadBuildPlayer(UUID uuid) {
+        BuildPlayer buildPlayer = this.buildPlayers.get(uuid);
+        if (buildPlayer != null) {
+            return buildPlayer;
+        }
+
+        // Storage is accessed outside the map, so that lookups of other players are never blocked by it
+        boolean loaded = true;
+        BuildPlayer loadedPlayer;
+        try {
+            loadedPlayer = readBuildPlayer(uuid);
+        } catch (StorageException e) {
+            plugin.getLogger().log(Level.SEVERE, "Unable to load player " + uuid + ". Their data will not be saved until it can be loaded", e);
+            loadedPlayer = new BuildPlayer(uuid, new Settings());
+            loaded = false;
+        }
+
+        BuildPlayer previousPlayer = this.buildPlayers.putIfAbsent(uuid, loadedPlayer);
+        if (previousPlayer != null) {
+            return previousPlayer;
+        }
+
+        if (!loaded) {
+            this.unreadablePlayers.add(uuid);
+        }
+        return loadedPlayer;
+    }
+
+    private BuildPlayer readBuildPlayer(UUID uuid) throws StorageException {
+        ConfigurationSection playerSection = playerStorage.loadPlayer(uuid);
+        if (playerSection == null) {
+            return new BuildPlayer(uuid, new Settings());
+        }
+
+        BuildPlayer buildPlayer = new BuildPlayer(uuid, loadSettings(playerSection, "settings."));
+        buildPlayer.setLogoutLocation(loadLogoutLocation(playerSection, "logout-location"));
+        return buildPlayer;
+    }
+
+    /**
+     * Saves the {@link BuildPlayer} of a player who is leaving the server and removes it from memory once the player
+     * has been offline for a while.
+     *
+     * @param player The player who is leaving
+     */
+    public void unloadBuildPlayer(Player player) {
+        BuildPlayer buildPlayer = getBuildPlayer(player);
+        if (buildPlayer != null && !unreadablePlayers.contains(player.getUniqueId())) {
+            playerStorage.savePlayer(buildPlayer);
+        }
+        scheduleUnload(player.getUniqueId());
+    }
+
+    /**
+     * Removes the {@link BuildPlayer} with the given unique-id from memory after {@link #UNLOAD_DELAY} ticks, unless
+     * the player is online by then. May be called from any thread.
+     *
+     * @param uuid The unique-id of the player
+     */
+    public void scheduleUnload(UUID uuid) {
+        BukkitTask unloadTask = Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            unloadTasks.remove(uuid);
+            if (Bukkit.getPlayer(uuid) == null) {
+                buildPlayers.remove(uuid);
+                unreadablePlayers.remove(uuid);
+            }
+        }, UNLOAD_DELAY);
+
+        BukkitTask previousTask = unloadTasks.put(uuid, unloadTask);
+        if (previousTask != null) {
+            previousTask.cancel();
+        }
+    }
+
+    private void cancelUnload(UUID uuid) {
+        BukkitTask unloadTask = unloadTasks.remove(uuid);
+        if (unloadTask != null) {
+            unloadTask.cancel();
+        }
     }
 
     public Collection<BuildPlayer> getBuildPlayers() {
@@ -378,27 +493,25 @@ public class PlayerManager {
     }
 
     public void save() {
-        getBuildPlayers().forEach(buildPlayer -> playersConfig.savePlayer(buildPlayer.getUniqueId(), buildPlayer));
+        playerStorage.savePlayers(getBuildPlayers().stream()
+                .filter(buildPlayer -> !unreadablePlayers.contains(buildPlayer.getUniqueId()))
+                .collect(Collectors.toList()));
     }
 
+    /**
+     * Loads the players which are currently online. All other players are loaded when they join.
+     */
     public void load() {
-        FileConfiguration configuration = playersConfig.getFile();
-        ConfigurationSection configurationSection = configuration.getConfigurationSection("players");
-        if (configurationSection == null) {
-            return;
+        // Players converted from the legacy settings file are only in memory and have to be stored right away
+        if (!buildPlayers.isEmpty()) {
+            playerStorage.savePlayers(getBuildPlayers());
+            buildPlayers.clear();
         }
 
-        Set<String> uuids = configurationSection.getKeys(false);
-        uuids.forEach(uuid -> {
-            BuildPlayer buildPlayer = createBuildPlayer(
-                    UUID.fromString(uuid),
-                    loadSettings(configuration, "players." + uuid + ".settings.")
-            );
-            buildPlayer.setLogoutLocation(loadLogoutLocation(configuration, "players." + uuid + ".logout-location"));
-        });
+        Bukkit.getOnlinePlayers().forEach(player -> loadBuildPlayer(player.getUniqueId()));
     }
 
-    private Settings loadSettings(FileConfiguration configuration, String pathPrefix) {
+    private Settings loadSettings(ConfigurationSection configuration, String pathPrefix) {
         NavigatorType navigatorType = NavigatorType.valueOf(configuration.getString(pathPrefix + "type"));
         DesignColor glassColor = DesignColor.matchColor(configuration.getString(pathPrefix + "glass"));
         WorldSort worldSort = WorldSort.matchWorldSort(configuration.getString(pathPrefix + "world-sort"));
@@ -422,7 +535,7 @@ public class PlayerManager {
     }
 
     @Nullable
-    private LogoutLocation loadLogoutLocation(FileConfiguration configuration, String pathPrefix) {
+    private LogoutLocation loadLogoutLocation(ConfigurationSection configuration, String pathPrefix) {
         String location = configuration.getString(pathPrefix);
         if (location == null || location.trim().equals("")) {
             return null;
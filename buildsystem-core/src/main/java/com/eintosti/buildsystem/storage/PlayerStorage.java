@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.storage;
+
+import com.eintosti.buildsystem.player.BuildPlayer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Persists the data of {@link BuildPlayer}s.
+ * <p>
+ * The data of a single player is exchanged as a {@link ConfigurationSection} containing the values produced by
+ * {@link BuildPlayer#serialize()}.
+ *
+ * @author einTosti
+ */
+public interface PlayerStorage {
+
+    /**
+     * Loads the data of a single player. May be called from any thread.
+     *
+     * @param uuid The unique-id of the player
+     * @return The data of the player, or {@code null} if the player has never been saved
+     * @throws StorageException If the player's data exists but could not be read
+     */
+    @Nullable
+    ConfigurationSection loadPlayer(UUID uuid) throws StorageException;
+
+    void savePlayer(BuildPlayer buildPlayer);
+
+    void savePlayers(Collection<BuildPlayer> buildPlayers);
+
+    /**
+     * Releases all resources held by the storage. Pending changes are written before this method returns.
+     */
+    default void close() {
+    }
+}
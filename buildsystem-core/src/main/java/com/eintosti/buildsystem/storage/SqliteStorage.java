@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.storage;
+
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.player.BuildPlayer;
+import com.eintosti.buildsystem.world.BuildWorld;
+import com.eintosti.buildsystem.world.data.WorldStatus;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores worlds and players in an embedded SQLite database, using the driver which is bundled with the server.
+ * <p>
+ * Every world and player is stored in its own row, so saving a single world only writes that row. Columns which are
+ * queried on their own, such as the creator and status of a world, are indexed. The remaining data is stored in the
+ * same format as in the YAML files.
+ * <p>
+ * All statements are executed on a single background thread which owns the connection.
+ *
+ * @author einTosti
+ */
+public class SqliteStorage implements WorldStorage, PlayerStorage {
+
+    private static final String FILE_NAME = "data.db";
+
+    private final Logger logger;
+    private final File file;
+    private final ExecutorService executor;
+
+    private Connection connection;
+
+    public SqliteStorage(BuildSystem plugin) throws SQLException {
+        this.logger = plugin.getLogger();
+        this.file = new File(plugin.getDataFolder(), FILE_NAME);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BuildSystem Storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            call(() -> {
+                open();
+                return null;
+            });
+        } catch (SQLException e) {
+            executor.shutdown();
+            throw e;
+        }
+    }
+
+    private void open() throws SQLException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("The SQLite driver is not available on this server", e);
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new SQLException("Couldn't create directory: " + parent.getName());
+        }
+
+        this.connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("CREATE TABLE IF NOT EXISTS worlds (" +
+                    "name TEXT NOT NULL PRIMARY KEY COLLATE NOCASE, " +
+                    "creator_id TEXT, " +
+                    "status TEXT NOT NULL, " +
+                    "private INTEGER NOT NULL, " +
+                    "data TEXT NOT NULL)");
+            statement.execute("CREATE INDEX IF NOT EXISTS worlds_creator_id ON worlds (creator_id)");
+            statement.execute("CREATE INDEX IF NOT EXISTS worlds_status ON worlds (status)");
+            statement.execute("CREATE TABLE IF NOT EXISTS players (" +
+                    "uuid TEXT NOT NULL PRIMARY KEY, " +
+                    "data TEXT NOT NULL)");
+        }
+    }
+
+    @Override
+    public Map<String, ConfigurationSection> loadWorlds() {
+        return loadRows("SELECT name, data FROM worlds");
+    }
+
+    @Override
+    public List<String> getWorldNames(UUID creatorId) {
+        return queryWorldNames("SELECT name FROM worlds WHERE creator_id = ?", creatorId.toString());
+    }
+
+    @Override
+    public List<String> getWorldNames(WorldStatus status) {
+        return queryWorldNames("SELECT name FROM worlds WHERE status = ?", status.name());
+    }
+
+    @Override
+    public void saveWorld(BuildWorld buildWorld) {
+        saveWorlds(Collections.singletonList(buildWorld), false);
+    }
+
+    @Override
+    public void saveWorlds(Collection<BuildWorld> buildWorlds) {
+        saveWorlds(buildWorlds, true);
+    }
+
+    private void saveWorlds(Collection<BuildWorld> buildWorlds, boolean dirtyOnly) {
+        List<WorldRow> rows = new ArrayList<>();
+        for (BuildWorld buildWorld : buildWorlds) {
+            if (dirtyOnly && !buildWorld.isDirty()) {
+                continue;
+            }
+
+            rows.add(new WorldRow(buildWorld.getName(), toSection(buildWorld.serialize())));
+            buildWorld.setDirty(false);
+        }
+
+        if (!rows.isEmpty()) {
+            execute(() -> upsertWorlds(rows));
+        }
+    }
+
+    @Override
+    public void deleteWorld(String worldName) {
+        execute(() -> {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM worlds WHERE name = ?")) {
+                statement.setString(1, worldName);
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public void renameWorld(String oldName, BuildWorld buildWorld) {
+        List<WorldRow> rows = Collections.singletonList(new WorldRow(buildWorld.getName(), toSection(buildWorld.serialize())));
+        buildWorld.setDirty(false);
+        execute(() -> inTransaction(() -> {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM worlds WHERE name = ?")) {
+                statement.setString(1, oldName);
+                statement.executeUpdate();
+            }
+            insertWorlds(rows);
+        }));
+    }
+
+    @Override
+    @Nullable
+    public ConfigurationSection loadPlayer(UUID uuid) throws StorageException {
+        try {
+            return call(() -> {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT data FROM players WHERE uuid = ?")) {
+                    statement.setString(1, uuid.toString());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (!resultSet.next()) {
+                            return null;
+                        }
+
+                        YamlConfiguration data = new YamlConfiguration();
+                        data.loadFromString(resultSet.getString(1));
+                        return data;
+                    }
+                } catch (InvalidConfigurationException e) {
+                    throw new SQLException("Invalid row \"" + uuid + "\"", e);
+                }
+            });
+        } catch (SQLException e) {
+            throw new StorageException("Unable to load player " + uuid + " from the database", e);
+        }
+    }
+
+    @Override
+    public void savePlayer(BuildPlayer buildPlayer) {
+        savePlayers(Collections.singletonList(buildPlayer));
+    }
+
+    @Override
+    public void savePlayers(Collection<BuildPlayer> buildPlayers) {
+        Map<UUID, String> rows = new LinkedHashMap<>();
+        buildPlayers.forEach(buildPlayer -> rows.put(buildPlayer.getUniqueId(), toSection(buildPlayer.serialize()).saveToString()));
+        if (!rows.isEmpty()) {
+            execute(() -> upsertPlayers(rows));
+        }
+    }
+
+    /**
+     * Gets whether the database does not contain any worlds or players yet.
+     *
+     * @return {@code true} if the database is empty, otherwise {@code false}
+     */
+    public boolean isEmpty() throws SQLException {
+        return call(() -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM worlds) OR EXISTS (SELECT 1 FROM players)")) {
+                return !resultSet.next() || !resultSet.getBoolean(1);
+            }
+        });
+    }
+
+    /**
+     * Copies the given world and player data, usually read from the YAML files, into the database and waits for all
+     * rows to be written. Rows which already exist are replaced.
+     *
+     * @param worlds  The data of each world, keyed by the world's name
+     * @param players The data of each player, keyed by the player's unique-id
+     */
+    public void migrate(Map<String, ConfigurationSection> worlds, Map<UUID, ConfigurationSection> players) throws SQLException {
+        List<WorldRow> worldRows = new ArrayList<>();
+        worlds.forEach((name, section) -> worldRows.add(new WorldRow(name, toSection(section.getValues(false)))));
+        Map<UUID, String> playerRows = new LinkedHashMap<>();
+        players.forEach((uuid, section) -> playerRows.put(uuid, toSection(section.getValues(false)).saveToString()));
+
+        call(() -> {
+            upsertWorlds(worldRows);
+            upsertPlayers(playerRows);
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        try {
+            executor.execute(() -> {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.log(Level.SEVERE, "Unable to close the database connection", e);
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // Already closed, as this storage is used for both worlds and players
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Timed out while waiting for the database to be written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void upsertWorlds(List<WorldRow> rows) throws SQLException {
+        inTransaction(() -> insertWorlds(rows));
+    }
+
+    private void insertWorlds(List<WorldRow> rows) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT OR REPLACE INTO worlds (name, creator_id, status, private, data) VALUES (?, ?, ?, ?, ?)")) {
+            for (WorldRow row : rows) {
+                statement.setString(1, row.name);
+                statement.setString(2, row.creatorId);
+                statement.setString(3, row.status);
+                statement.setBoolean(4, row.privateWorld);
+                statement.setString(5, row.data);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void upsertPlayers(Map<UUID, String> rows) throws SQLException {
+        inTransaction(() -> {
+            try (PreparedStatement statement = connection.prepareStatement("INSERT OR REPLACE INTO players (uuid, data) VALUES (?, ?)")) {
+                for (Map.Entry<UUID, String> row : rows.entrySet()) {
+                    statement.setString(1, row.getKey().toString());
+                    statement.setString(2, row.getValue());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private void inTransaction(SqlRunnable runnable) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            runnable.run();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private Map<String, ConfigurationSection> loadRows(String query) {
+        try {
+            return call(() -> {
+                Map<String, ConfigurationSection> rows = new LinkedHashMap<>();
+                try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(query)) {
+                    while (resultSet.next()) {
+                        String key = resultSet.getString(1);
+                        YamlConfiguration data = new YamlConfiguration();
+                        try {
+                            data.loadFromString(resultSet.getString(2));
+                            rows.put(key, data);
+                        } catch (InvalidConfigurationException e) {
+                            logger.log(Level.WARNING, "Skipping invalid row \"" + key + "\"", e);
+                        }
+                    }
+                }
+                return rows;
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Unable to load data from the database", e);
+            return new LinkedHashMap<>();
+        }
+    }
+
+    private List<String> queryWorldNames(String query, String parameter) {
+        try {
+            return call(() -> {
+                List<String> names = new ArrayList<>();
+                try (PreparedStatement statement = connection.prepareStatement(query)) {
+                    statement.setString(1, parameter);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            names.add(resultSet.getString(1));
+                        }
+                    }
+                }
+                return names;
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Unable to query the database", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Executes the given task on the storage thread and waits for its result.
+     */
+    private <T> T call(SqlCallable<T> callable) throws SQLException {
+        try {
+            return executor.submit(callable::call).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof SQLException ? (SQLException) cause : new SQLException(cause);
+        } catch (RejectedExecutionException e) {
+            throw new SQLException("The database has already been closed", e);
+        }
+    }
+
+    /**
+     * Executes the given task on the storage thread without waiting for it to complete.
+     */
+    private void execute(SqlRunnable runnable) {
+        try {
+            executor.execute(() -> {
+                try {
+                    runnable.run();
+                } catch (SQLException e) {
+                    logger.log(Level.SEVERE, "Unable to write to the database", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warning("Discarded a write because the database has already been closed");
+        }
+    }
+
+    private static YamlConfiguration toSection(Map<String, Object> values) {
+        YamlConfiguration section = new YamlConfiguration();
+        values.forEach(section::set);
+        return section;
+    }
+
+    private static class WorldRow {
+
+        private final String name;
+        private final String creatorId;
+        private final String status;
+        private final boolean privateWorld;
+        private final String data;
+
+        private WorldRow(String name, YamlConfiguration section) {
+            String creatorId = section.getString("creator-id");
+            this.name = name;
+            this.creatorId = creatorId == null || creatorId.equalsIgnoreCase("null") ? null : creatorId;
+            this.status = section.getString("status", WorldStatus.NOT_STARTED.name());
+            this.privateWorld = section.getBoolean("private");
+            this.data = section.saveToString();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlCallable<T> {
+        T call() throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface SqlRunnable {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.storage;
+
+/**
+ * Thrown if stored data could not be read, as opposed to not having been stored at all.
+ *
+ * @author einTosti
+ */
+public class StorageException extends Exception {
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
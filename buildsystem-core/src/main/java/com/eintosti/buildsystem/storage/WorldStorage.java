@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.storage;
+
+import com.eintosti.buildsystem.world.BuildWorld;
+import com.eintosti.buildsystem.world.data.WorldStatus;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persists the data of {@link BuildWorld}s.
+ * <p>
+ * The data of a single world is exchanged as a {@link ConfigurationSection} containing the values produced by
+ * {@link BuildWorld#serialize()}, so that every implementation shares the same parsing code.
+ *
+ * @author einTosti
+ */
+public interface WorldStorage {
+
+    /**
+     * Loads the data of all stored worlds.
+     *
+     * @return The data of each world, keyed by the world's name
+     */
+    Map<String, ConfigurationSection> loadWorlds();
+
+    /**
+     * Gets the names of all stored worlds which were created by the given player.
+     *
+     * @param creatorId The unique-id of the creator
+     * @return The names of the worlds
+     */
+    List<String> getWorldNames(UUID creatorId);
+
+    /**
+     * Gets the names of all stored worlds which have the given status.
+     *
+     * @param status The status of the worlds
+     * @return The names of the worlds
+     */
+    List<String> getWorldNames(WorldStatus status);
+
+    void saveWorld(BuildWorld buildWorld);
+
+    /**
+     * Saves all worlds which have been modified since they were last saved.
+     *
+     * @param buildWorlds The worlds to save
+     */
+    void saveWorlds(Collection<BuildWorld> buildWorlds);
+
+    void deleteWorld(String worldName);
+
+    /**
+     * Moves the stored data of a world from its old name to its current name. Both changes are written together, so
+     * that the world is never stored under both names or under neither.
+     *
+     * @param oldName    The name under which the world is currently stored
+     * @param buildWorld The world, which must already have its new name
+     */
+    void renameWorld(String oldName, BuildWorld buildWorld);
+
+    /**
+     * Releases all resources held by the storage. Pending changes are written before this method returns.
+     */
+    default void close() {
+    }
+}
@@ -9,10 +9,9 @@ package com.eintosti.buildsystem.tabcomplete;
 
 import com.eintosti.buildsystem.BuildSystem;
 import com.eintosti.buildsystem.command.subcommand.Argument;
-import com.eintosti.buildsystem.world.BuildWorld;
+import com.eintosti.buildsystem.world.LevelMetadataIndex;
 import com.eintosti.buildsystem.world.WorldManager;
 import com.eintosti.buildsystem.world.generator.Generator;
-import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
@@ -20,7 +19,6 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
-import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -63,7 +61,9 @@ public class WorldsTabComplete extends ArgumentSorter implements TabCompleter {
 
             case 2: {
                 switch (args[0].toLowerCase()) {
+                    case "backup":
                     case "builders":
+                    case "compact":
                     case "edit":
                     case "info":
                     case "rename":
@@ -89,32 +89,12 @@ public class WorldsTabComplete extends ArgumentSorter implements TabCompleter {
                         break;
 
                     case "import":
-                        String[] directories = Bukkit.getWorldContainer().list((dir, name) -> {
-                            for (String charString : name.split("")) {
-                                if (charString.matches("[^A-Za-z0-9/_-]")) {
-                                    return false;
-                                }
+                        LevelMetadataIndex levelMetadataIndex = worldManager.getLevelMetadataIndex();
+                        levelMetadataIndex.refresh();
+                        for (String projectName : levelMetadataIndex.getWorldFolders()) {
+                            if (projectName.matches(".*[^A-Za-z0-9/_-].*") || worldManager.getBuildWorld(projectName) != null) {
+                                continue;
                             }
-
-                            File worldFolder = new File(dir, name);
-                            if (!worldFolder.isDirectory()) {
-                                return false;
-                            }
-
-                            File levelFile = new File(dir + File.separator + name + File.separator + "level.dat");
-                            if (!levelFile.exists()) {
-                                return false;
-                            }
-
-                            BuildWorld buildWorld = worldManager.getBuildWorld(name);
-                            return buildWorld == null;
-                        });
-
-                        if (directories == null || directories.length == 0) {
-                            return arrayList;
-                        }
-
-                        for (String projectName : directories) {
                             addArgument(args[1], projectName, arrayList);
                         }
                         break;
@@ -123,6 +103,12 @@ public class WorldsTabComplete extends ArgumentSorter implements TabCompleter {
             }
 
             case 3: {
+                if (args[0].equalsIgnoreCase("backup")) {
+                    addArgument(args[2], "list", arrayList);
+                    addArgument(args[2], "restore", arrayList);
+                    return arrayList;
+                }
+
                 if (args[0].equalsIgnoreCase("import")) {
                     if (args[1].equalsIgnoreCase(" ")) {
                         return arrayList;
@@ -134,6 +120,11 @@ public class WorldsTabComplete extends ArgumentSorter implements TabCompleter {
             }
 
             case 4: {
+                if (args[0].equalsIgnoreCase("backup") && args[2].equalsIgnoreCase("restore")) {
+                    worldManager.getBackupManager().getBackups(args[1]).forEach(backup -> addArgument(args[3], backup.getId(), arrayList));
+                    return arrayList;
+                }
+
                 if (!args[2].equalsIgnoreCase("-g")) {
                     return arrayList;
                 }
@@ -150,7 +141,9 @@ public class WorldsTabComplete extends ArgumentSorter implements TabCompleter {
 
     public enum WorldsArgument implements Argument {
         ADD_BUILDER("addBuilder", "buildsystem.addbuilder"),
+        BACKUP("backup", "buildsystem.backup"),
         BUILDERS("builders", "buildsystem.builders"),
+        COMPACT("compact", "buildsystem.compact"),
         DELETE("delete", "buildsystem.delete"),
         EDIT("edit", "buildsystem.edit"),
         HELP("help", null),
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.util;
+
+import com.eintosti.buildsystem.BuildSystem;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Runs expensive file operations, such as copying or deleting worlds, on a bounded pool of background threads.
+ * <p>
+ * Every operation returns a future which completes on an I/O thread. Callers which need to access the server must
+ * switch back to the main thread themselves.
+ *
+ * @author einTosti
+ */
+public class FileOperations {
+
+    /**
+     * Files which belong to a running world and must never be copied into another one.
+     */
+    public static final Set<String> IGNORED_WORLD_FILES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("uid.dat", "session.lock")));
+
+    private static final String OS_NAME = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+    private static final int MAX_THREADS = 4;
+    private static final long PROGRESS_INTERVAL_MILLIS = 2000L;
+
+    private final Logger logger;
+    private final ExecutorService executor;
+    private final AtomicBoolean cloningSupported;
+
+    public FileOperations(BuildSystem plugin) {
+        this(plugin.getLogger());
+    }
+
+    /**
+     * Creates file operations which report problems to the given logger instead of the plugin's.
+     */
+    FileOperations(Logger logger) {
+        this.logger = logger;
+
+        int threads = Math.max(2, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "BuildSystem I/O #" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cloningSupported = new AtomicBoolean(OS_NAME.contains("linux") || OS_NAME.contains("mac"));
+    }
+
+    /**
+     * Gets the executor on which file operations are run.
+     *
+     * @return The executor
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Copies a directory and all of its contents, except for the {@link #IGNORED_WORLD_FILES}.
+     * <p>
+     * The directory tree is created first, after which all files are copied in parallel. Each file is copied with
+     * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, which lets the operating system
+     * copy the data without passing it through the JVM where supported. Modification times are preserved.
+     *
+     * @param source The directory to copy
+     * @param target The directory to copy to, which is created if it does not exist
+     * @return A future which completes with the amount of copied bytes
+     */
+    public CompletableFuture<Long> copyDirectory(Path source, Path target) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return createDirectories(source, target);
+            } catch (IOException e) {
+                throw new FileOperationException("Unable to copy " + source, e);
+            }
+        }, executor).thenCompose(files -> {
+            List<CompletableFuture<Long>> copies = new ArrayList<>(files.size());
+            for (Path file : files) {
+                Path targetFile = target.resolve(source.relativize(file));
+                copies.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return copyFile(file, targetFile);
+                    } catch (IOException e) {
+                        throw new FileOperationException("Unable to copy " + file, e);
+                    }
+                }, executor));
+            }
+
+            return CompletableFuture.allOf(copies.toArray(new CompletableFuture[0]))
+                    .thenApply(ignored -> copies.stream().mapToLong(CompletableFuture::join).sum());
+        });
+    }
+
+    /**
+     * Copies a directory like {@link #copyDirectory(Path, Path)}, but lets the copy share its data with the source until
+     * either of them is modified, if the file system supports it.
+     * <p>
+     * The clone is made with the system's {@code cp} command, using reflinks on Linux (e.g. Btrfs, XFS) and
+     * {@code clonefile} on macOS (APFS), so that the file system copies a block only once it is written to. If cloning
+     * fails, it is not attempted again until the server is restarted and the directory is copied instead.
+     *
+     * @param source The directory to clone
+     * @param target The directory to clone to, which must not exist yet
+     * @return A future which completes with {@code true} if the directory was cloned, or {@code false} if it was copied
+     */
+    public CompletableFuture<Boolean> cloneDirectory(Path source, Path target) {
+        if (!cloningSupported.get()) {
+            return copyDirectory(source, target).thenApply(bytes -> false);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Process process = new ProcessBuilder(getCloneCommand(source, target)).redirectErrorStream(true).start();
+                String output = readOutput(process);
+                if (process.waitFor() == 0) {
+                    for (String fileName : IGNORED_WORLD_FILES) {
+                        Files.deleteIfExists(target.resolve(fileName));
+                    }
+                    return true;
+                }
+                logger.info("Copy-on-write clones are not supported, copying instead: " + output.trim());
+            } catch (IOException e) {
+                logger.info("Copy-on-write clones are not supported, copying instead: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            cloningSupported.set(false);
+            return false;
+        }, executor).thenCompose(cloned -> {
+            if (cloned) {
+                return CompletableFuture.completedFuture(true);
+            }
+            return deleteDirectory(target, null)
+                    .thenCompose(deleted -> copyDirectory(source, target))
+                    .thenApply(bytes -> false);
+        });
+    }
+
+    private List<String> getCloneCommand(Path source, Path target) {
+        if (OS_NAME.contains("mac")) {
+            return Arrays.asList("cp", "-R", "-c", source.toString(), target.toString());
+        }
+        return Arrays.asList("cp", "-R", "--reflink=always", source.toString(), target.toString());
+    }
+
+    private String readOutput(Process process) throws IOException {
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append('\n');
+            }
+        }
+        return output.toString();
+    }
+
+    /**
+     * Creates the directory tree of the source within the target.
+     *
+     * @return All files which have to be copied
+     */
+    private List<Path> createDirectories(Path source, Path target) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && !IGNORED_WORLD_FILES.contains(file.getFileName().toString())) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+
+    private long copyFile(Path source, Path target) throws IOException {
+        long size;
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+        Files.setLastModifiedTime(target, Files.getLastModifiedTime(source));
+        return size;
+    }
+
+    /**
+     * Deletes a directory and all of its contents.
+     *
+     * @param directory The directory to delete
+     * @param listener  Notified about the progress of the deletion on the I/O thread, if any
+     * @return A future which completes with the amount of deleted files
+     */
+    public CompletableFuture<Integer> deleteDirectory(Path directory, @Nullable ProgressListener listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return deleteRecursively(directory, listener);
+            } catch (IOException e) {
+                throw new FileOperationException("Unable to delete " + directory, e);
+            }
+        }, executor);
+    }
+
+    private int deleteRecursively(Path directory, @Nullable ProgressListener listener) throws IOException {
+        if (!Files.exists(directory)) {
+            return 0;
+        }
+
+        int total;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            total = (int) paths.filter(Files::isRegularFile).count();
+        }
+
+        AtomicInteger deleted = new AtomicInteger();
+        long[] lastProgress = {System.currentTimeMillis()};
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.deleteIfExists(file);
+                int count = deleted.incrementAndGet();
+                long now = System.currentTimeMillis();
+                if (listener != null && now - lastProgress[0] >= PROGRESS_INTERVAL_MILLIS) {
+                    lastProgress[0] = now;
+                    listener.onProgress(count, total);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                if (e instanceof NoSuchFileException) {
+                    return FileVisitResult.CONTINUE;
+                }
+                throw e;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, @Nullable IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.deleteIfExists(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return deleted.get();
+    }
+
+    /**
+     * Waits for running operations to finish and stops the background threads.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warning("Timed out while waiting for file operations to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Notified about the progress of a file operation.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * @param processed The amount of files which have been processed so far
+         * @param total     The total amount of files
+         */
+        void onProgress(int processed, int total);
+    }
+
+    /**
+     * Thrown, wrapped in a {@link java.util.concurrent.CompletionException}, if a file operation failed.
+     */
+    public static class FileOperationException extends RuntimeException {
+
+        public FileOperationException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
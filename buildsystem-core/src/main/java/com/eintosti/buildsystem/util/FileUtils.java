@@ -7,17 +7,14 @@
  */
 package com.eintosti.buildsystem.util;
 
-import com.google.common.collect.Sets;
-import org.jetbrains.annotations.NotNull;
-
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
-import java.util.Set;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 /**
  * @author einTosti
@@ -25,78 +22,48 @@ import java.util.Set;
 public class FileUtils {
 
     /**
-     * Copies a file to a new location preserving the file date.
+     * Gets the creation date of a file.
      *
-     * @param source An existing file to copy, must not be {@code null}
-     * @param target The new file, must not be {@code null}
+     * @param file The file to be checked
+     * @return The amount of milliseconds that have passed since {@code January 1, 1970 UTC}, until the file was created
      */
-    public static void copy(@NotNull File source, @NotNull File target) {
+    public static long getDirectoryCreation(File file) {
+        long creation = System.currentTimeMillis();
         try {
-            Set<String> ignore = Sets.newHashSet("uid.dat", "session.lock");
-            if (ignore.contains(source.getName())) {
-                return;
-            }
-
-            if (source.isDirectory()) {
-                if (!target.exists() && !target.mkdirs()) {
-                    throw new IOException("Couldn't create directory: " + target.getName());
-                }
-
-                for (String fileName : source.list()) {
-                    if (ignore.contains(fileName)) {
-                        continue;
-                    }
-
-                    File sourceFile = new File(source, fileName);
-                    File targetFile = new File(target, fileName);
-                    copy(sourceFile, targetFile);
-                }
-            } else {
-                InputStream inputStream = Files.newInputStream(source.toPath());
-                OutputStream outputStream = Files.newOutputStream(target.toPath());
-                byte[] buffer = new byte[1024];
-                int length;
-                while ((length = inputStream.read(buffer)) > 0) {
-                    outputStream.write(buffer, 0, length);
-                }
-                inputStream.close();
-                outputStream.close();
-            }
+            BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            FileTime time = attrs.creationTime();
+            creation = time.toMillis();
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            e.printStackTrace();
         }
+        return creation;
     }
 
     /**
-     * Deletes a directory recursively.
+     * Gets the total size of all files within a directory.
      *
-     * @param directory Directory to delete
+     * @param directory The directory to be checked
+     * @return The size in bytes
+     * @throws IOException if the directory could not be walked
      */
-    public static void deleteDirectory(File directory) {
-        File[] allContents = directory.listFiles();
-        if (allContents != null) {
-            for (File file : allContents) {
-                deleteDirectory(file);
-            }
+    public static long getDirectorySize(File directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            return paths.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
         }
-        directory.delete();
     }
 
     /**
-     * Gets the creation date of a file.
+     * Formats an amount of bytes in a human-readable way, e.g. {@code 1.5 MB}.
      *
-     * @param file The file to be checked
-     * @return The amount of milliseconds that have passed since {@code January 1, 1970 UTC}, until the file was created
+     * @param bytes The amount of bytes
+     * @return The formatted size
      */
-    public static long getDirectoryCreation(File file) {
-        long creation = System.currentTimeMillis();
-        try {
-            BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
-            FileTime time = attrs.creationTime();
-            creation = time.toMillis();
-        } catch (IOException e) {
-            e.printStackTrace();
+    public static String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
         }
-        return creation;
+
+        int unit = (int) (Math.log(bytes) / Math.log(1024));
+        return String.format(Locale.ROOT, "%.1f %sB", bytes / Math.pow(1024, unit), "KMGTPE".charAt(unit - 1));
     }
-}
\ No newline at end of file
+}
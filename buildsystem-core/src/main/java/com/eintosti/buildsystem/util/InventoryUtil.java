@@ -45,6 +45,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -351,12 +352,12 @@ public class InventoryUtil {
     /**
      * Sort the list of worlds to match the given {@link WorldSort}.
      *
-     * @param worldManager The world manager object
-     * @param settings     The settings that provide the sorting method
+     * @param worlds   The worlds to sort
+     * @param settings The settings that provide the sorting method
      * @return The list of sorted worlds
      */
-    public List<BuildWorld> sortWorlds(WorldManager worldManager, Settings settings) {
-        List<BuildWorld> buildWorlds = new ArrayList<>(worldManager.getBuildWorlds());
+    public List<BuildWorld> sortWorlds(Collection<BuildWorld> worlds, Settings settings) {
+        List<BuildWorld> buildWorlds = new ArrayList<>(worlds);
         switch (settings.getWorldSort()) {
             default: // NAME_A_TO_Z
                 buildWorlds.sort(Comparator.comparing(worldA -> worldA.getName().toLowerCase()));
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.mojang.util.UUIDTypeAdapter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Looks up players using Mojang's public API.
+ *
+ * @author einTosti
+ */
+@SuppressWarnings("deprecation")
+public class MojangProfileResolver implements ProfileResolver {
+
+    private static final String UUID_URL = "https://api.mojang.com/users/profiles/minecraft/%s";
+    private static final String NAME_URL = "https://sessionserver.mojang.com/session/minecraft/profile/%s";
+    private static final String PROFILES_URL = "https://api.mojang.com/profiles/minecraft";
+    /**
+     * The maximum amount of names which can be requested from {@link #PROFILES_URL} at once.
+     */
+    private static final int PROFILES_BATCH_SIZE = 10;
+    private static final int TIMEOUT = 5000;
+
+    @Override
+    @Nullable
+    public UUID fetchUUID(String name) throws IOException {
+        JsonElement response = request(new URL(String.format(UUID_URL, name)), null);
+        if (response == null || !response.isJsonObject()) {
+            return null;
+        }
+        return parseUUID(getString(response, "id"));
+    }
+
+    @Override
+    public void fetchUUIDs(Collection<String> names, BiConsumer<String, UUID> consumer) throws IOException {
+        List<String> remainingNames = new ArrayList<>(names);
+        IOException failure = null;
+        for (int i = 0; i < remainingNames.size(); i += PROFILES_BATCH_SIZE) {
+            JsonArray request = new JsonArray();
+            remainingNames.subList(i, Math.min(i + PROFILES_BATCH_SIZE, remainingNames.size()))
+                    .forEach(name -> request.add(new JsonPrimitive(name)));
+
+            // A failed batch must not prevent the remaining batches from being looked up
+            try {
+                JsonElement response = request(new URL(PROFILES_URL), request);
+                if (response == null || !response.isJsonArray()) {
+                    continue;
+                }
+
+                for (JsonElement profile : response.getAsJsonArray()) {
+                    consumer.accept(getString(profile, "name"), parseUUID(getString(profile, "id")));
+                }
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    @Nullable
+    public String fetchName(UUID uuid) throws IOException {
+        JsonElement response = request(new URL(String.format(NAME_URL, UUIDTypeAdapter.fromUUID(uuid))), null);
+        if (response == null || !response.isJsonObject()) {
+            return null;
+        }
+        return getString(response, "name");
+    }
+
+    /**
+     * Gets a string value of a profile returned by the API.
+     *
+     * @throws IOException If the profile is not an object or does not contain the value
+     */
+    private String getString(JsonElement profile, String key) throws IOException {
+        if (!profile.isJsonObject()) {
+            throw new IOException("Invalid profile: " + profile);
+        }
+
+        JsonElement value = profile.getAsJsonObject().get(key);
+        if (value == null || !value.isJsonPrimitive()) {
+            throw new IOException("Missing \"" + key + "\" in profile: " + profile);
+        }
+        return value.getAsString();
+    }
+
+    private UUID parseUUID(String id) throws IOException {
+        try {
+            return UUIDTypeAdapter.fromString(id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Invalid unique-id: " + id, e);
+        }
+    }
+
+    /**
+     * Sends a request and parses the response.
+     *
+     * @param url  The url to request
+     * @param body The body to post, or {@code null} to send a get-request
+     * @return The parsed response, or {@code null} if the response was empty
+     * @throws IOException If the request failed
+     */
+    @Nullable
+    private JsonElement request(URL url, @Nullable JsonElement body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(TIMEOUT);
+        connection.setReadTimeout(TIMEOUT);
+
+        if (body != null) {
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setDoOutput(true);
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(body.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        int responseCode = connection.getResponseCode();
+        if (responseCode == HttpURLConnection.HTTP_NO_CONTENT || responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+            return null;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            // Support older versions of JSON used by Minecraft versions <1.18
+            return new JsonParser().parse(reader);
+        } catch (IllegalStateException e) {
+            return null;
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid response from " + url, e);
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
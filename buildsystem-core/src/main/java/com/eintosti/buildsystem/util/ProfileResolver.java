@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Looks up the unique-ids and names of players, e.g. by querying Mojang's API.
+ * Implementations are called from arbitrary threads and may block.
+ *
+ * @author einTosti
+ * @see UUIDFetcher#setResolver(ProfileResolver)
+ */
+public interface ProfileResolver {
+
+    /**
+     * @param name The name of the player
+     * @return The unique-id of the player, or {@code null} if no player has the given name
+     * @throws IOException If the lookup failed
+     */
+    @Nullable
+    UUID fetchUUID(String name) throws IOException;
+
+    /**
+     * Looks up several players at once. Each player which could be found is passed to the consumer on the calling
+     * thread as soon as it has been looked up, so that players which have been found are kept even if looking up
+     * others fails.
+     *
+     * @param names    The names of the players
+     * @param consumer Accepts the name and unique-id of each player which could be found
+     * @throws IOException If looking up any of the players failed
+     */
+    void fetchUUIDs(Collection<String> names, BiConsumer<String, UUID> consumer) throws IOException;
+
+    /**
+     * @param uuid The unique-id of the player
+     * @return The current name of the player, or {@code null} if no player has the given unique-id
+     * @throws IOException If the lookup failed
+     */
+    @Nullable
+    String fetchName(UUID uuid) throws IOException;
+}
@@ -7,30 +7,96 @@
  */
 package com.eintosti.buildsystem.util;
 
+import com.eintosti.buildsystem.BuildSystem;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
-import com.mojang.util.UUIDTypeAdapter;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Resolves the unique-ids and names of players and caches the results.
+ * <p>
+ * Cached entries expire after {@link #ENTRY_LIFETIME}, as players can change their name. The cache is stored in
+ * {@code uuid-cache.yml} and seeded with the server's {@code usercache.json} and all online players. Concurrent
+ * lookups of the same player share a single request to the {@link ProfileResolver}.
+ *
  * @author einTosti
  */
-@SuppressWarnings("deprecation")
 public class UUIDFetcher {
 
-    private static final String UUID_URL = "https://api.mojang.com/users/profiles/minecraft/%s";
-    private static final String NAME_URL = "https://api.mojang.com/user/profiles/%s/names";
+    private static final String FILE_NAME = "uuid-cache.yml";
+    private static final String USER_CACHE_FILE_NAME = "usercache.json";
+    private static final String USER_CACHE_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss Z";
+    private static final long ENTRY_LIFETIME = TimeUnit.DAYS.toMillis(7);
+
+    private static final Map<String, CacheEntry> UUID_CACHE = new ConcurrentHashMap<>();
+    private static final Map<UUID, CacheEntry> NAME_CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<UUID>> UUID_REQUESTS = new ConcurrentHashMap<>();
+    private static final Map<UUID, CompletableFuture<String>> NAME_REQUESTS = new ConcurrentHashMap<>();
+
+    private static volatile ProfileResolver resolver = new MojangProfileResolver();
+
+    /**
+     * Replaces the {@link ProfileResolver} which is used to look up players that are not cached.
+     *
+     * @param resolver The resolver to use
+     */
+    public static void setResolver(ProfileResolver resolver) {
+        UUIDFetcher.resolver = resolver;
+    }
+
+    /**
+     * Remembers that the player with the given name has the given uuid, e.g. because both were stored together.
+     *
+     * @param name The name of the player
+     * @param uuid The uuid of the player
+     */
+    public static void cache(String name, UUID uuid) {
+        cache(name, uuid, System.currentTimeMillis() + ENTRY_LIFETIME);
+    }
+
+    private static void cache(String name, UUID uuid, long expiresAt) {
+        CacheEntry entry = new CacheEntry(uuid, name, expiresAt);
+        UUID_CACHE.put(getKey(name), entry);
 
-    private static final Map<String, UUID> UUID_CACHE = new HashMap<>();
-    private static final Map<UUID, String> NAME_CACHE = new HashMap<>();
+        CacheEntry previousEntry = NAME_CACHE.put(uuid, entry);
+        if (previousEntry != null && !previousEntry.name.equalsIgnoreCase(name)) {
+            UUID_CACHE.remove(getKey(previousEntry.name), previousEntry);
+        }
+    }
+
+    /**
+     * Only caches the given entry if no entry which expires later is cached yet.
+     */
+    private static void cacheIfNewer(String name, UUID uuid, long expiresAt) {
+        CacheEntry entry = NAME_CACHE.get(uuid);
+        if (entry == null || entry.expiresAt < expiresAt) {
+            cache(name, uuid, expiresAt);
+        }
+    }
 
     /**
      * Fetches the uuid which belongs to the player with the give name synchronously and returns it.
@@ -38,34 +104,92 @@ public class UUIDFetcher {
      * @param name The name of the player whose uuid is to be fetched
      * @return The uuid which belongs to the player
      */
+    @Nullable
     public static UUID getUUID(String name) {
-        String lowerCase = name.toLowerCase();
-        if (UUID_CACHE.containsKey(lowerCase)) {
-            return UUID_CACHE.get(lowerCase);
+        String key = getKey(name);
+        CacheEntry entry = UUID_CACHE.get(key);
+        if (entry != null && !entry.isExpired()) {
+            return entry.uuid;
         }
 
         try {
-            HttpURLConnection connection = (HttpURLConnection) new URL(String.format(UUID_URL, name)).openConnection();
-            connection.setReadTimeout(5000);
+            return request(UUID_REQUESTS, key, () -> {
+                UUID uuid = resolver.fetchUUID(name);
+                if (uuid != null) {
+                    cache(name, uuid);
+                }
+                return uuid;
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+            return entry != null ? entry.uuid : null;
+        }
+    }
 
-            JsonObject jsonObject;
-            try {
-                // Support older versions of JSON used by Minecraft versions <1.18
-                jsonObject = new JsonParser().parse(new BufferedReader(new InputStreamReader(connection.getInputStream()))).getAsJsonObject();
-            } catch (IllegalStateException ignored) {
-                return null;
+    /**
+     * Fetches the uuids which belong to the players with the given names synchronously.
+     * Names which are not cached are requested in batches rather than one by one.
+     *
+     * @param names The names of the players whose uuids are to be fetched
+     * @return The uuids which could be fetched, keyed by the lower-case name of the player
+     */
+    public static Map<String, UUID> getUUIDs(Collection<String> names) {
+        Map<String, UUID> uuids = new HashMap<>();
+        Map<String, CompletableFuture<UUID>> ownRequests = new LinkedHashMap<>();
+        Map<String, CompletableFuture<UUID>> otherRequests = new HashMap<>();
+
+        for (String name : names) {
+            String key = getKey(name);
+            CacheEntry entry = UUID_CACHE.get(key);
+            if (entry != null && !entry.isExpired()) {
+                uuids.put(key, entry.uuid);
+                continue;
             }
 
-            UUID uuid = UUIDTypeAdapter.fromString(jsonObject.get("id").getAsString());
-            UUID_CACHE.put(lowerCase, uuid);
-            NAME_CACHE.put(uuid, name);
+            if (ownRequests.containsKey(key) || otherRequests.containsKey(key)) {
+                continue;
+            }
 
-            return uuid;
-        } catch (Exception e) {
-            e.printStackTrace();
+            CompletableFuture<UUID> future = new CompletableFuture<>();
+            CompletableFuture<UUID> pendingRequest = UUID_REQUESTS.putIfAbsent(key, future);
+            if (pendingRequest != null) {
+                otherRequests.put(key, pendingRequest);
+            } else {
+                ownRequests.put(key, future);
+            }
         }
 
-        return null;
+        if (!ownRequests.isEmpty()) {
+            Map<String, UUID> fetchedUuids = new HashMap<>();
+            try {
+                resolver.fetchUUIDs(ownRequests.keySet(), (name, uuid) -> {
+                    cache(name, uuid);
+                    fetchedUuids.put(getKey(name), uuid);
+                });
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                // Lookups which are waiting for these names must always receive a result
+                ownRequests.forEach((key, future) -> {
+                    CacheEntry entry = UUID_CACHE.get(key);
+                    UUID uuid = fetchedUuids.containsKey(key) ? fetchedUuids.get(key) : (entry != null ? entry.uuid : null);
+                    if (uuid != null) {
+                        uuids.put(key, uuid);
+                    }
+                    future.complete(uuid);
+                    UUID_REQUESTS.remove(key, future);
+                });
+            }
+        }
+
+        otherRequests.forEach((key, future) -> {
+            UUID uuid = future.exceptionally(throwable -> null).join();
+            if (uuid != null) {
+                uuids.put(key, uuid);
+            }
+        });
+
+        return uuids;
     }
 
     /**
@@ -74,32 +198,160 @@ public class UUIDFetcher {
      * @param uuid The uuid of the player whose name is to be fetched
      * @return The name which belongs to the player
      */
+    @Nullable
     public static String getName(UUID uuid) {
-        if (NAME_CACHE.containsKey(uuid)) {
-            return NAME_CACHE.get(uuid);
+        CacheEntry entry = NAME_CACHE.get(uuid);
+        if (entry != null && !entry.isExpired()) {
+            return entry.name;
         }
 
         try {
-            HttpURLConnection connection = (HttpURLConnection) new URL(String.format(NAME_URL, UUIDTypeAdapter.fromUUID(uuid))).openConnection();
-            connection.setReadTimeout(5000);
-            JsonArray nameHistory;
+            return request(NAME_REQUESTS, uuid, () -> {
+                String name = resolver.fetchName(uuid);
+                if (name != null) {
+                    cache(name, uuid);
+                }
+                return name;
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+            return entry != null ? entry.name : null;
+        }
+    }
+
+    /**
+     * Performs a lookup, unless a lookup with the same key is already in progress, in which case its result is used.
+     */
+    private static <K, V> V request(Map<K, CompletableFuture<V>> requests, K key, Lookup<V> lookup) throws IOException {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> pendingRequest = requests.putIfAbsent(key, future);
+        if (pendingRequest != null) {
             try {
-                // Support older versions of JSON used by Minecraft versions <1.18
-                nameHistory = new JsonParser().parse(new BufferedReader(new InputStreamReader(connection.getInputStream()))).getAsJsonArray();
-            } catch (IllegalStateException ignored) {
-                return null;
+                return pendingRequest.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for " + key, e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
             }
-            JsonObject currentNameData = nameHistory.get(nameHistory.size() - 1).getAsJsonObject();
+        }
 
-            String name = currentNameData.get("name").getAsString();
-            UUID_CACHE.put(name, uuid);
-            NAME_CACHE.put(uuid, name);
+        try {
+            V value = lookup.fetch();
+            future.complete(value);
+            return value;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            requests.remove(key, future);
+        }
+    }
 
-            return name;
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * Loads the cache from the plugin's data folder and seeds it with the server's user cache and all online players.
+     *
+     * @param plugin The plugin
+     */
+    public static void load(BuildSystem plugin) {
+        long now = System.currentTimeMillis();
+
+        File file = new File(plugin.getDataFolder(), FILE_NAME);
+        if (file.exists()) {
+            ConfigurationSection players = YamlConfiguration.loadConfiguration(file).getConfigurationSection("players");
+            if (players != null) {
+                for (String uuid : players.getKeys(false)) {
+                    String name = players.getString(uuid + ".name");
+                    long expiresAt = players.getLong(uuid + ".expires");
+                    if (name != null && expiresAt > now) {
+                        cacheIfNewer(name, UUID.fromString(uuid), expiresAt);
+                    }
+                }
+            }
+        }
+
+        File userCacheFile = new File(USER_CACHE_FILE_NAME);
+        if (userCacheFile.exists()) {
+            try (Reader reader = Files.newBufferedReader(userCacheFile.toPath(), StandardCharsets.UTF_8)) {
+                JsonElement userCache = new JsonParser().parse(reader);
+                if (userCache.isJsonArray()) {
+                    loadUserCache(userCache.getAsJsonArray(), now);
+                }
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                plugin.getLogger().warning("Unable to read " + USER_CACHE_FILE_NAME + ": " + e.getMessage());
+            }
+        }
+
+        Bukkit.getOnlinePlayers().forEach(player -> cache(player.getName(), player.getUniqueId()));
+    }
+
+    private static void loadUserCache(JsonArray userCache, long now) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat(USER_CACHE_DATE_FORMAT, Locale.ROOT);
+        for (JsonElement element : userCache) {
+            JsonObject profile = element.getAsJsonObject();
+            if (!profile.has("name") || !profile.has("uuid")) {
+                continue;
+            }
+
+            long expiresAt = now + ENTRY_LIFETIME;
+            if (profile.has("expiresOn")) {
+                try {
+                    expiresAt = Math.min(expiresAt, dateFormat.parse(profile.get("expiresOn").getAsString()).getTime());
+                } catch (ParseException ignored) {
+                    // Fall back to the default lifetime
+                }
+            }
+
+            if (expiresAt > now) {
+                cacheIfNewer(profile.get("name").getAsString(), UUID.fromString(profile.get("uuid").getAsString()), expiresAt);
+            }
         }
+    }
+
+    /**
+     * Writes all entries which have not expired yet to the plugin's data folder.
+     *
+     * @param plugin The plugin
+     */
+    public static void save(BuildSystem plugin) {
+        YamlConfiguration configuration = new YamlConfiguration();
+        for (CacheEntry entry : NAME_CACHE.values()) {
+            if (entry.isExpired()) {
+                continue;
+            }
+
+            String path = "players." + entry.uuid.toString();
+            configuration.set(path + ".name", entry.name);
+            configuration.set(path + ".expires", entry.expiresAt);
+        }
+
+        plugin.getConfigurationWriter().submit(new File(plugin.getDataFolder(), FILE_NAME), configuration.saveToString());
+    }
+
+    private static String getKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static class CacheEntry {
+
+        private final UUID uuid;
+        private final String name;
+        private final long expiresAt;
+
+        private CacheEntry(UUID uuid, String name, long expiresAt) {
+            this.uuid = uuid;
+            this.name = name;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
 
-        return null;
+    @FunctionalInterface
+    private interface Lookup<V> {
+        V fetch() throws IOException;
     }
-}
\ No newline at end of file
+}
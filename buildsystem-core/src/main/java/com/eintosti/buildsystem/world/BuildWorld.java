@@ -8,14 +8,12 @@
 package com.eintosti.buildsystem.world;
 
 import com.cryptomorin.xseries.XMaterial;
-import com.cryptomorin.xseries.messages.Titles;
 import com.eintosti.buildsystem.BuildSystem;
 import com.eintosti.buildsystem.Messages;
 import com.eintosti.buildsystem.config.ConfigValues;
 import com.eintosti.buildsystem.event.world.BuildWorldLoadEvent;
 import com.eintosti.buildsystem.event.world.BuildWorldUnloadEvent;
 import com.eintosti.buildsystem.util.InventoryUtil;
-import com.eintosti.buildsystem.util.UUIDFetcher;
 import com.eintosti.buildsystem.world.data.WorldStatus;
 import com.eintosti.buildsystem.world.data.WorldType;
 import com.eintosti.buildsystem.world.generator.CustomGenerator;
@@ -27,14 +25,15 @@ import org.bukkit.World;
 import org.bukkit.configuration.serialization.ConfigurationSerializable;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.text.SimpleDateFormat;
-import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -49,7 +48,7 @@ public class BuildWorld implements ConfigurationSerializable {
     private final BuildSystem plugin;
     private final ConfigValues configValues;
     private final WorldType worldType;
-    private final List<Builder> builders;
+    private final Map<UUID, Builder> builders;
     private final long creationDate;
     private final CustomGenerator customGenerator;
 
@@ -72,8 +71,11 @@ public class BuildWorld implements ConfigurationSerializable {
     private Difficulty difficulty;
 
     private long seconds;
+    private long lastActivity;
     private boolean loaded;
-    private BukkitTask unloadTask;
+    private boolean dirty;
+    private WorldUnloadTask unloadTask;
+    private World world;
 
     public BuildWorld(
             String name,
@@ -96,7 +98,7 @@ public class BuildWorld implements ConfigurationSerializable {
         this.project = "-";
         this.permission = configValues.getDefaultPermission(privateWorld).replace("%world%", name);
         this.customSpawn = null;
-        this.builders = new ArrayList<>();
+        this.builders = new LinkedHashMap<>();
         this.creationDate = creationDate;
 
         this.physics = configValues.isWorldPhysics();
@@ -141,6 +143,7 @@ public class BuildWorld implements ConfigurationSerializable {
             this.material = XMaterial.PLAYER_HEAD;
         }
 
+        this.dirty = true;
         manageUnload();
     }
 
@@ -189,9 +192,11 @@ public class BuildWorld implements ConfigurationSerializable {
         this.blockInteractions = blockInteractions;
         this.buildersEnabled = buildersEnabled;
         this.difficulty = difficulty;
-        this.builders = builders;
+        this.builders = new LinkedHashMap<>();
+        builders.forEach(this::addBuilder);
         this.customGenerator = customGenerator;
 
+        this.dirty = false;
         manageUnload();
     }
 
@@ -201,9 +206,22 @@ public class BuildWorld implements ConfigurationSerializable {
      * @return The bukkit world
      */
     public World getWorld() {
+        if (world != null) {
+            return world;
+        }
         return Bukkit.getWorld(name);
     }
 
+    /**
+     * Cache the world linked to this object, or clear it once the world has been unloaded.
+     *
+     * @param world The bukkit world, or {@code null}
+     * @see WorldManager#linkBukkitWorld(World)
+     */
+    void setWorld(@Nullable World world) {
+        this.world = world;
+    }
+
     /**
      * Get the name of the world.
      *
@@ -220,6 +238,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setName(String name) {
         this.name = name;
+        markDirty();
     }
 
     /**
@@ -250,6 +269,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setCreator(String creator) {
         this.creator = creator;
+        markDirty();
     }
 
     /**
@@ -270,7 +290,10 @@ public class BuildWorld implements ConfigurationSerializable {
      * @param creatorId The unique-id of the creator
      */
     public void setCreatorId(UUID creatorId) {
+        UUID oldCreatorId = this.creatorId;
         this.creatorId = creatorId;
+        plugin.getWorldManager().updateCreatorIndex(this, oldCreatorId);
+        markDirty();
     }
 
     /**
@@ -285,21 +308,13 @@ public class BuildWorld implements ConfigurationSerializable {
 
     /**
      * Save the creator's unique-id in a string which is suitable to be stored.
+     * If the unique-id has not been resolved yet, nothing is stored and it is resolved again when the world is loaded.
      *
      * @return The creator's unique-id as a string
      */
     @Nullable
     private String saveCreatorId() {
-        if (creatorId != null) {
-            return String.valueOf(getCreatorId());
-        }
-
-        String creator = getCreator();
-        if (creator != null && !creator.equalsIgnoreCase("-")) {
-            return String.valueOf(UUIDFetcher.getUUID(creator));
-        } else {
-            return null;
-        }
+        return creatorId != null ? String.valueOf(creatorId) : null;
     }
 
     /**
@@ -328,7 +343,13 @@ public class BuildWorld implements ConfigurationSerializable {
      * @param privateWorld {@code true} to make the world private, {@code false} to make the world public
      */
     public void setPrivate(boolean privateWorld) {
+        if (this.privateWorld == privateWorld) {
+            return;
+        }
+
         this.privateWorld = privateWorld;
+        plugin.getWorldManager().updateVisibilityIndex(this);
+        markDirty();
     }
 
     /**
@@ -347,6 +368,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setMaterial(XMaterial material) {
         this.material = material;
+        markDirty();
     }
 
     /**
@@ -364,7 +386,10 @@ public class BuildWorld implements ConfigurationSerializable {
      * @param worldStatus The status to switch to
      */
     public void setStatus(WorldStatus worldStatus) {
+        WorldStatus oldStatus = this.worldStatus;
         this.worldStatus = worldStatus;
+        plugin.getWorldManager().updateStatusIndex(this, oldStatus);
+        markDirty();
     }
 
     /**
@@ -383,6 +408,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setProject(String project) {
         this.project = project;
+        markDirty();
     }
 
     /**
@@ -401,6 +427,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setPermission(String permission) {
         this.permission = permission;
+        markDirty();
     }
 
     /**
@@ -448,6 +475,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setPhysics(boolean physics) {
         this.physics = physics;
+        markDirty();
     }
 
     /**
@@ -466,6 +494,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setExplosions(boolean explosions) {
         this.explosions = explosions;
+        markDirty();
     }
 
     /**
@@ -484,6 +513,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setMobAI(boolean mobAI) {
         this.mobAI = mobAI;
+        markDirty();
     }
 
     /**
@@ -504,6 +534,7 @@ public class BuildWorld implements ConfigurationSerializable {
     public void setCustomSpawn(Location customSpawn) {
         this.customSpawn = customSpawn.getX() + ";" + customSpawn.getY() + ";" + customSpawn.getZ() + ";" +
                 customSpawn.getYaw() + ";" + customSpawn.getPitch();
+        markDirty();
     }
 
     /**
@@ -511,6 +542,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void removeCustomSpawn() {
         this.customSpawn = null;
+        markDirty();
     }
 
     /**
@@ -529,6 +561,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setBlockBreaking(boolean blockBreaking) {
         this.blockBreaking = blockBreaking;
+        markDirty();
     }
 
     /**
@@ -547,6 +580,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setBlockPlacement(boolean blockPlacement) {
         this.blockPlacement = blockPlacement;
+        markDirty();
     }
 
     /**
@@ -565,6 +599,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setBlockInteractions(boolean blockInteractions) {
         this.blockInteractions = blockInteractions;
+        markDirty();
     }
 
     /**
@@ -615,6 +650,7 @@ public class BuildWorld implements ConfigurationSerializable {
                 this.difficulty = Difficulty.PEACEFUL;
                 break;
         }
+        markDirty();
     }
 
     /**
@@ -627,12 +663,12 @@ public class BuildWorld implements ConfigurationSerializable {
     }
 
     /**
-     * Get a list of all builders who can modify the world.
+     * Get all builders who can modify the world, in the order they were added.
      *
-     * @return the list of all builders
+     * @return An unmodifiable view of all builders
      */
-    public List<Builder> getBuilders() {
-        return builders;
+    public Collection<Builder> getBuilders() {
+        return Collections.unmodifiableCollection(builders.values());
     }
 
     /**
@@ -642,6 +678,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     public void setBuilders(boolean buildersEnabled) {
         this.buildersEnabled = buildersEnabled;
+        markDirty();
     }
 
     /**
@@ -693,10 +730,7 @@ public class BuildWorld implements ConfigurationSerializable {
      */
     @Nullable
     public Builder getBuilder(UUID uuid) {
-        return this.builders.parallelStream()
-                .filter(builder -> builder.getUuid().equals(uuid))
-                .findFirst()
-                .orElse(null);
+        return this.builders.get(uuid);
     }
 
     /**
@@ -706,7 +740,7 @@ public class BuildWorld implements ConfigurationSerializable {
      * @return Whether the player is a builder
      */
     public boolean isBuilder(UUID uuid) {
-        return this.builders.parallelStream().anyMatch(builder -> builder.getUuid().equals(uuid));
+        return this.builders.containsKey(uuid);
     }
 
     /**
@@ -726,26 +760,18 @@ public class BuildWorld implements ConfigurationSerializable {
      * @param builder The builder object
      */
     public void addBuilder(Builder builder) {
-        this.builders.add(builder);
+        this.builders.put(builder.getUuid(), builder);
+        markDirty();
     }
 
     /**
      * Remove a {@link Builder} from the current list of builders
      *
-     * @param builder The builder object
-     */
-    private void removeBuilder(Builder builder) {
-        this.builders.remove(builder);
-    }
-
-    /**
-     * Add a {@link Builder} to the current list of builders
-     *
      * @param uuid The builder's unique ID
-     * @see BuildWorld#removeBuilder(Builder)
      */
     public void removeBuilder(UUID uuid) {
-        removeBuilder(getBuilder(uuid));
+        this.builders.remove(uuid);
+        markDirty();
     }
 
     /***
@@ -784,6 +810,7 @@ public class BuildWorld implements ConfigurationSerializable {
     }
 
     public void manageUnload() {
+        plugin.getWorldManager().cancelUnload(this);
         if (!configValues.isUnloadWorlds()) {
             this.loaded = true;
             return;
@@ -791,6 +818,7 @@ public class BuildWorld implements ConfigurationSerializable {
 
         this.seconds = configValues.getTimeUntilUnload();
         this.loaded = (getWorld() != null);
+        this.lastActivity = System.currentTimeMillis();
         startUnloadTask();
     }
 
@@ -799,32 +827,100 @@ public class BuildWorld implements ConfigurationSerializable {
             return;
         }
 
-        this.unloadTask = Bukkit.getScheduler().runTaskLater(plugin, this::unload, 20L * seconds);
+        if (loaded) {
+            plugin.getWorldManager().scheduleUnload(this);
+        }
     }
 
     public void resetUnloadTask() {
-        if (this.unloadTask != null) {
-            this.unloadTask.cancel();
-        }
-
+        this.lastActivity = System.currentTimeMillis();
+        cancelStagedUnload();
         startUnloadTask();
     }
 
-    private void unload() {
+    /**
+     * Get the time at which the world will be unloaded if nobody enters it until then.
+     *
+     * @return The time in milliseconds
+     */
+    public long getUnloadDeadline() {
+        return lastActivity + seconds * 1000L;
+    }
+
+    /**
+     * Get the time at which a player last entered or left the world, or the world was last loaded.
+     *
+     * @return The time in milliseconds
+     */
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    /**
+     * Gets whether the world is loaded and could be unloaded right now, i.e. nobody is inside it, it is not already
+     * being unloaded and it is neither blacklisted nor the spawn's world.
+     *
+     * @return {@code true} if the world can be unloaded, otherwise {@code false}
+     */
+    public boolean canUnload() {
         World bukkitWorld = getWorld();
-        if (bukkitWorld == null) {
+        return bukkitWorld != null
+                && bukkitWorld.getPlayers().isEmpty()
+                && !isUnloading()
+                && !configValues.getBlackListedWorldsToUnload().contains(name)
+                && !isSpawnWorld(bukkitWorld);
+    }
+
+    /**
+     * Unloads the world's chunks over several ticks and then the world itself, unless a player enters it in the
+     * meantime.
+     *
+     * @see WorldUnloadTask
+     */
+    void unload() {
+        World bukkitWorld = getWorld();
+        if (bukkitWorld == null || isUnloading()) {
             return;
         }
 
-        if (!bukkitWorld.getPlayers().isEmpty()) {
+        // Worlds which are being backed up must not be saved until the backup has been created
+        if (!bukkitWorld.getPlayers().isEmpty() || plugin.getWorldManager().getBackupManager().isRunning(name)) {
             resetUnloadTask();
             return;
         }
 
-        forceUnload(true);
+        if (configValues.getBlackListedWorldsToUnload().contains(name) || isSpawnWorld(bukkitWorld)) {
+            return;
+        }
+
+        this.unloadTask = new WorldUnloadTask(plugin, this, bukkitWorld);
+    }
+
+    /**
+     * Gets whether the world's chunks are currently being unloaded.
+     *
+     * @return {@code true} if the world is being unloaded, otherwise {@code false}
+     */
+    public boolean isUnloading() {
+        return unloadTask != null;
+    }
+
+    void cancelStagedUnload() {
+        if (unloadTask != null) {
+            unloadTask.cancel();
+            this.unloadTask = null;
+        }
     }
 
+    /**
+     * Unloads all of the world's chunks and the world itself immediately. As this can take several seconds for large
+     * worlds, it should only be used where the world's files are needed right away, e.g. to delete or rename the world.
+     * Otherwise use {@link #unload()}.
+     *
+     * @param save Whether the chunks should be saved
+     */
     public void forceUnload(boolean save) {
+        cancelStagedUnload();
         World bukkitWorld = getWorld();
         if (bukkitWorld == null) {
             return;
@@ -841,11 +937,18 @@ public class BuildWorld implements ConfigurationSerializable {
         Bukkit.unloadWorld(bukkitWorld, save);
         Bukkit.getWorlds().remove(bukkitWorld);
 
-        this.loaded = false;
-        this.unloadTask = null;
+        markUnloaded();
+        plugin.getLogger().info("*** Unloaded world \"" + name + "\" ***");
+    }
 
+    /**
+     * Marks the world as unloaded after its {@link World} has been unloaded, e.g. because its folder is about to be
+     * moved.
+     */
+    void markUnloaded() {
+        this.loaded = false;
+        plugin.getWorldManager().cancelUnload(this);
         Bukkit.getServer().getPluginManager().callEvent(new BuildWorldUnloadEvent(this));
-        plugin.getLogger().info("*** Unloaded world \"" + name + "\" ***");
     }
 
     private boolean isSpawnWorld(World bukkitWorld) {
@@ -857,15 +960,18 @@ public class BuildWorld implements ConfigurationSerializable {
         return Objects.equals(spawnManager.getSpawn().getWorld(), bukkitWorld);
     }
 
+    /**
+     * Queues the world to be loaded and shows the player its progress.
+     *
+     * @param player The player who is waiting for the world
+     * @see WorldManager#queueLoad(BuildWorld, Player)
+     */
     public void load(Player player) {
         if (isLoaded()) {
             return;
         }
 
-        player.closeInventory();
-        Titles.sendTitle(player, 5, 70, 20, " ", Messages.getString("loading_world", new AbstractMap.SimpleEntry<>("%world%", name)));
-
-        load();
+        plugin.getWorldManager().queueLoad(this, player);
     }
 
     public void load() {
@@ -873,13 +979,18 @@ public class BuildWorld implements ConfigurationSerializable {
             return;
         }
 
+        if (plugin.getWorldManager().getWorldArchiver().isArchived(name)) {
+            // Restoring the world must not block the main thread, so it has to be loaded through the load queue
+            plugin.getLogger().warning("Unable to load world \"" + name + "\" as it is archived");
+            return;
+        }
+
         plugin.getLogger().info("*** Loading world \"" + name + "\" ***");
         new BuildWorldCreator(plugin, this).generateBukkitWorld();
         this.loaded = true;
+        resetUnloadTask();
 
         Bukkit.getServer().getPluginManager().callEvent(new BuildWorldLoadEvent(this));
-
-        resetUnloadTask();
     }
 
     @Override
@@ -914,6 +1025,28 @@ public class BuildWorld implements ConfigurationSerializable {
         return world;
     }
 
+    /**
+     * Get whether the world has been modified since it was last saved.
+     *
+     * @return {@code true} if the world has to be saved, otherwise {@code false}
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Set whether the world has been modified since it was last saved.
+     *
+     * @param dirty {@code true} if the world has to be saved, {@code false} once it was saved
+     */
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+
+    private void markDirty() {
+        this.dirty = true;
+    }
+
     public enum Time {
         SUNRISE, NOON, NIGHT, UNKNOWN
     }
@@ -12,15 +12,12 @@ import com.cryptomorin.xseries.XSound;
 import com.eintosti.buildsystem.BuildSystem;
 import com.eintosti.buildsystem.Messages;
 import com.eintosti.buildsystem.config.ConfigValues;
-import com.eintosti.buildsystem.util.FileUtils;
+import com.eintosti.buildsystem.util.FileOperations;
 import com.eintosti.buildsystem.util.external.PlayerChatInput;
 import com.eintosti.buildsystem.world.data.WorldType;
 import com.eintosti.buildsystem.world.generator.CustomGenerator;
 import com.eintosti.buildsystem.world.generator.voidgenerator.DeprecatedVoidGenerator;
 import com.eintosti.buildsystem.world.generator.voidgenerator.ModernVoidGenerator;
-import dev.dewy.nbt.Nbt;
-import dev.dewy.nbt.tags.collection.CompoundTag;
-import dev.dewy.nbt.tags.primitive.IntTag;
 import org.bukkit.*;
 import org.bukkit.entity.Player;
 import org.bukkit.generator.ChunkGenerator;
@@ -28,8 +25,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.io.IOException;
+import java.nio.file.Path;
 import java.util.AbstractMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 /**
  * @author Trichtern
@@ -142,13 +141,17 @@ public class BuildWorldCreator {
                 privateWorld,
                 null
         );
-        worldManager.getBuildWorlds().add(buildWorld);
+        worldManager.addBuildWorld(buildWorld);
 
         Messages.sendMessage(player, "worlds_world_creation_started",
                 new AbstractMap.SimpleEntry<>("%world%", worldName),
                 new AbstractMap.SimpleEntry<>("%type%", worldType.getName())
         );
-        finishPreparationsAndGenerate(buildWorld);
+        if (worldManager.getWorldPool().claim(worldType, worldName)) {
+            generateBukkitWorld();
+        } else {
+            generateAndPrepareWorld();
+        }
         teleportAfterCreation(player);
         Messages.sendMessage(player, "worlds_creation_finished");
         return true;
@@ -182,7 +185,7 @@ public class BuildWorldCreator {
             this.customGenerator = new CustomGenerator(generatorInfo[0], chunkGenerator);
             plugin.getLogger().info("Using custom world generator: " + customGenerator.getName());
 
-            worldManager.getBuildWorlds().add(new BuildWorld(
+            worldManager.addBuildWorld(new BuildWorld(
                     worldName,
                     player.getName(),
                     player.getUniqueId(),
@@ -210,53 +213,75 @@ public class BuildWorldCreator {
      * @return {@code true} if the world was successfully created, {@code false otherwise}
      */
     private boolean createTemplateWorld(Player player) {
-        boolean worldExists = worldManager.getBuildWorld(worldName) != null;
-        File worldFile = new File(Bukkit.getWorldContainer(), worldName);
-        if (worldExists || worldFile.exists()) {
+        File templateFile = new File(plugin.getDataFolder() + File.separator + "templates" + File.separator + template);
+        if (!worldManager.reserve(worldName)) {
             Messages.sendMessage(player, "worlds_world_exists");
             return false;
         }
 
-        File templateFile = new File(plugin.getDataFolder() + File.separator + "templates" + File.separator + template);
         if (!templateFile.exists()) {
+            worldManager.release(worldName);
             Messages.sendMessage(player, "worlds_template_does_not_exist");
             return false;
         }
 
-        BuildWorld buildWorld = new BuildWorld(
-                worldName,
-                player.getName(),
-                player.getUniqueId(),
-                WorldType.TEMPLATE,
-                System.currentTimeMillis(),
-                privateWorld,
-                null
-        );
-        worldManager.getBuildWorlds().add(buildWorld);
-
         Messages.sendMessage(player, "worlds_template_creation_started",
                 new AbstractMap.SimpleEntry<>("%world%", worldName),
                 new AbstractMap.SimpleEntry<>("%template%", template)
         );
-        FileUtils.copy(templateFile, worldFile);
-        Bukkit.createWorld(WorldCreator.name(worldName)
-                .type(org.bukkit.WorldType.FLAT)
-                .generateStructures(false));
-        teleportAfterCreation(player);
-        Messages.sendMessage(player, "worlds_creation_finished");
+        Path worldFolder = new File(Bukkit.getWorldContainer(), worldName).toPath();
+        FileOperations fileOperations = plugin.getFileOperations();
+        CompletableFuture<?> copy = plugin.getConfigValues().isTemplateCopyOnWrite()
+                ? fileOperations.cloneDirectory(templateFile.toPath(), worldFolder)
+                : fileOperations.copyDirectory(templateFile.toPath(), worldFolder);
+        copy.whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (throwable != null) {
+                plugin.getLogger().log(Level.SEVERE, "Unable to copy template " + template + " to " + worldName, throwable);
+                Messages.sendMessage(player, "worlds_template_copy_failed");
+                worldManager.deleteReservedFolder(worldFolder, worldName);
+                return;
+            }
+
+            BuildWorld buildWorld = new BuildWorld(
+                    worldName,
+                    player.getName(),
+                    player.getUniqueId(),
+                    WorldType.TEMPLATE,
+                    System.currentTimeMillis(),
+                    privateWorld,
+                    null
+            );
+            // The name is reserved, so no other world can have been registered in the meantime
+            if (!worldManager.addBuildWorld(buildWorld)) {
+                worldManager.release(worldName);
+                Messages.sendMessage(player, "worlds_world_exists");
+                return;
+            }
+
+            if (generateBukkitWorld() == null) {
+                worldManager.removeBuildWorld(buildWorld);
+                Messages.sendMessage(player, "worlds_template_copy_failed");
+                worldManager.deleteReservedFolder(worldFolder, worldName);
+                return;
+            }
+
+            worldManager.release(worldName);
+            teleportAfterCreation(player);
+            Messages.sendMessage(player, "worlds_creation_finished");
+        }));
         return true;
     }
 
     /**
-     * Certain {@link WorldType}s require modifications to the world after its generation.
+     * Generates the world and applies the modifications which certain {@link WorldType}s require after generation.
      *
-     * @param buildWorld The build world object
+     * @return The world object
      */
-    private void finishPreparationsAndGenerate(BuildWorld buildWorld) {
-        WorldType worldType = buildWorld.getType();
+    @Nullable
+    World generateAndPrepareWorld() {
         World bukkitWorld = generateBukkitWorld();
         if (bukkitWorld == null) {
-            return;
+            return null;
         }
 
         switch (worldType) {
@@ -273,6 +298,7 @@ public class BuildWorldCreator {
             default:
                 break;
         }
+        return bukkitWorld;
     }
 
     @Nullable
@@ -360,28 +386,13 @@ public class BuildWorldCreator {
     }
 
     /**
-     * Parses the world's data version, as stored in {@code level.dat}.
+     * Gets the world's data version, as stored in {@code level.dat}.
      *
      * @return The world's data version if found, otherwise -1 if unable to parse
-     * @see <a href="https://minecraft.fandom.com/wiki/Data_version">Data version</a>
+     * @see LevelMetadataIndex#getDataVersion(String)
      */
     public int parseDataVersion() {
-        File levelFile = new File(Bukkit.getWorldContainer() + File.separator + worldName, "level.dat");
-        if (!levelFile.exists()) {
-            return -1;
-        }
-
-        try {
-            CompoundTag level = new Nbt().fromFile(levelFile);
-            CompoundTag data = level.get("Data");
-            IntTag dataVersion = data.getInt("DataVersion");
-
-            return dataVersion != null ? dataVersion.getValue() : -1;
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return -1;
+        return worldManager.getLevelMetadataIndex().getDataVersion(worldName);
     }
 
     /**
@@ -389,25 +400,7 @@ public class BuildWorldCreator {
      * Therefore, manually sets the world's {@code DataVersion} to the current server version, if lower.
      */
     private void updateDataVersion() {
-        File levelFile = new File(Bukkit.getWorldContainer() + File.separator + worldName, "level.dat");
-        if (!levelFile.exists()) {
-            return;
-        }
-
-        try {
-            Nbt nbt = new Nbt();
-            CompoundTag level = nbt.fromFile(levelFile);
-            CompoundTag data = level.get("Data");
-            IntTag dataVersion = data.getInt("DataVersion");
-
-            int serverVersion = plugin.getServerVersion().getDataVersion();
-            if (dataVersion.getValue() < serverVersion) {
-                dataVersion.setValue(serverVersion);
-                nbt.toFile(level, levelFile);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        worldManager.getLevelMetadataIndex().updateDataVersion(worldName, plugin.getServerVersion().getDataVersion());
     }
 
     private void teleportAfterCreation(Player player) {
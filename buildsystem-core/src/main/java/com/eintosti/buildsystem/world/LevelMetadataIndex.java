@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.world.data.LevelMetadata;
+import dev.dewy.nbt.Nbt;
+import dev.dewy.nbt.tags.collection.CompoundTag;
+import dev.dewy.nbt.tags.primitive.IntTag;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caches the {@link LevelMetadata} of every world folder in the world container, so that the {@code level.dat} does
+ * not have to be decompressed and parsed whenever a world is loaded or imported.
+ * <p>
+ * The index is refreshed on another thread every {@link #REFRESH_INTERVAL} ticks. A {@code level.dat} is only parsed
+ * again if its modification time or size has changed since it was last read. Lookups are served from memory and only
+ * read from disk if the world has not been indexed yet.
+ *
+ * @author einTosti
+ */
+public class LevelMetadataIndex {
+
+    private static final String LEVEL_FILE_NAME = "level.dat";
+    private static final long REFRESH_INTERVAL = 20L * 60;
+    private static final long MIN_REFRESH_MILLIS = 5_000L;
+
+    private final BuildSystem plugin;
+    private final Logger logger;
+    private final Map<String, LevelMetadata> metadata;
+    private final Set<String> worldFolders;
+    private final AtomicBoolean refreshing;
+
+    private volatile long lastRefresh;
+
+    LevelMetadataIndex(BuildSystem plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.metadata = new ConcurrentHashMap<>();
+        this.worldFolders = Collections.unmodifiableSet(metadata.keySet());
+        this.refreshing = new AtomicBoolean(false);
+
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::scan, 0L, REFRESH_INTERVAL);
+    }
+
+    /**
+     * Refreshes the index on another thread, unless it has been refreshed within the last few seconds.
+     */
+    public void refresh() {
+        if (System.currentTimeMillis() - lastRefresh >= MIN_REFRESH_MILLIS && !refreshing.get()) {
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, this::scan);
+        }
+    }
+
+    private void scan() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            File[] folders = Bukkit.getWorldContainer().listFiles(File::isDirectory);
+            Set<String> foundFolders = new HashSet<>();
+            if (folders != null) {
+                for (File folder : folders) {
+                    // Hidden folders, such as worlds which are being deleted, cannot be imported
+                    if (folder.getName().startsWith(".")) {
+                        continue;
+                    }
+
+                    File levelFile = new File(folder, LEVEL_FILE_NAME);
+                    if (!levelFile.isFile()) {
+                        continue;
+                    }
+
+                    String worldName = folder.getName();
+                    foundFolders.add(worldName);
+                    LevelMetadata cached = metadata.get(worldName);
+                    if (cached == null || !cached.matches(levelFile.lastModified(), levelFile.length())) {
+                        read(worldName, levelFile);
+                    }
+                }
+            }
+            metadata.keySet().retainAll(foundFolders);
+        } finally {
+            this.lastRefresh = System.currentTimeMillis();
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Gets the names of all folders in the world container which contain a {@code level.dat}, as of the last refresh.
+     *
+     * @return An unmodifiable view of the folder names
+     */
+    public Set<String> getWorldFolders() {
+        return worldFolders;
+    }
+
+    /**
+     * Gets the metadata of the world with the given name. If the world has not been indexed yet, its {@code level.dat}
+     * is read right away.
+     *
+     * @param worldName The name of the world's folder
+     * @return The world's metadata, or {@code null} if the world has no readable {@code level.dat}
+     */
+    @Nullable
+    public LevelMetadata getMetadata(String worldName) {
+        LevelMetadata cached = metadata.get(worldName);
+        if (cached != null) {
+            return cached;
+        }
+
+        File levelFile = getLevelFile(worldName);
+        return levelFile.isFile() ? read(worldName, levelFile) : null;
+    }
+
+    /**
+     * Gets the data version of the world with the given name.
+     *
+     * @param worldName The name of the world's folder
+     * @return The world's data version if found, otherwise -1
+     * @see #getMetadata(String)
+     */
+    public int getDataVersion(String worldName) {
+        LevelMetadata levelMetadata = getMetadata(worldName);
+        return levelMetadata != null ? levelMetadata.getDataVersion() : -1;
+    }
+
+    /**
+     * Sets the data version stored in the world's {@code level.dat} to the given version, if it is lower.
+     * The file is only read and rewritten if the indexed version is lower.
+     *
+     * @param worldName   The name of the world's folder
+     * @param dataVersion The minimum data version
+     */
+    public void updateDataVersion(String worldName, int dataVersion) {
+        LevelMetadata levelMetadata = getMetadata(worldName);
+        if (levelMetadata == null || levelMetadata.getDataVersion() >= dataVersion) {
+            return;
+        }
+
+        File levelFile = getLevelFile(worldName);
+        try {
+            Nbt nbt = new Nbt();
+            CompoundTag level = nbt.fromFile(levelFile);
+            CompoundTag data = level.get("Data");
+            IntTag dataVersionTag = data.getInt("DataVersion");
+            if (dataVersionTag == null || dataVersionTag.getValue() >= dataVersion) {
+                return;
+            }
+
+            dataVersionTag.setValue(dataVersion);
+            nbt.toFile(level, levelFile);
+            metadata.put(worldName, levelMetadata.withDataVersion(levelFile.lastModified(), levelFile.length(), dataVersion));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to update the data version of " + worldName, e);
+        }
+    }
+
+    /**
+     * Removes the world with the given name from the index, e.g. because its folder has been deleted or moved.
+     *
+     * @param worldName The name of the world's folder
+     */
+    public void invalidate(String worldName) {
+        metadata.remove(worldName);
+    }
+
+    private File getLevelFile(String worldName) {
+        return new File(new File(Bukkit.getWorldContainer(), worldName), LEVEL_FILE_NAME);
+    }
+
+    @Nullable
+    private LevelMetadata read(String worldName, File levelFile) {
+        long lastModified = levelFile.lastModified();
+        long size = levelFile.length();
+        try {
+            CompoundTag level = new Nbt().fromFile(levelFile);
+            CompoundTag data = level.get("Data");
+            if (data == null) {
+                return null;
+            }
+
+            LevelMetadata levelMetadata = new LevelMetadata(lastModified, size, getInt(data, "DataVersion", -1));
+            metadata.put(worldName, levelMetadata);
+            return levelMetadata;
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Unable to read the " + LEVEL_FILE_NAME + " of " + worldName, e);
+            return null;
+        }
+    }
+
+    private int getInt(CompoundTag compound, String name, int defaultValue) {
+        Object tag = compound.get(name);
+        return tag instanceof IntTag ? ((IntTag) tag).getValue() : defaultValue;
+    }
+}
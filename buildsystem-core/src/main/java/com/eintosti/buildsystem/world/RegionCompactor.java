@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.util.FileOperations;
+import com.eintosti.buildsystem.util.FileUtils;
+import com.eintosti.buildsystem.world.data.WorldType;
+import org.bukkit.Bukkit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Shrinks the region files of unloaded {@link WorldType#VOID void} and {@link WorldType#FLAT flat} worlds by removing
+ * chunks which the world's generator would create the same way, e.g. chunks which have only been generated because a
+ * player flew past them.
+ * <p>
+ * The region files of all dimensions are compacted in parallel on the {@link FileOperations} threads by a
+ * {@link RegionFileCompactor} each. The compacted files are only moved over the original ones on the main thread and
+ * only if the world has not been loaded in the meantime, so that the server never writes to a region file which is
+ * being replaced. The world's name is {@link WorldManager#isReserved(String) reserved} while it is being compacted, so
+ * neither can the world be loaded nor can a new world with the same name be created before the files have been moved.
+ * Must only be used from the main thread.
+ *
+ * @author einTosti
+ */
+public class RegionCompactor {
+
+    private final BuildSystem plugin;
+    private final Logger logger;
+    private final WorldManager worldManager;
+    private final Set<String> runningWorlds;
+
+    RegionCompactor(BuildSystem plugin, WorldManager worldManager) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.worldManager = worldManager;
+        this.runningWorlds = new HashSet<>();
+    }
+
+    /**
+     * Gets whether the world's type is one whose chunks can be removed.
+     *
+     * @param buildWorld The world
+     * @return {@code true} if the world can be compacted, otherwise {@code false}
+     */
+    public boolean isSupported(BuildWorld buildWorld) {
+        return buildWorld.getType() == WorldType.VOID || buildWorld.getType() == WorldType.FLAT;
+    }
+
+    /**
+     * Gets whether the region files of a world are currently being compacted.
+     *
+     * @param worldName The name of the world
+     * @return {@code true} if the world is being compacted, otherwise {@code false}
+     */
+    public boolean isRunning(String worldName) {
+        return runningWorlds.contains(worldName);
+    }
+
+    /**
+     * Compacts the region files of a {@link BuildWorld}. If the world is loaded, it is saved and unloaded first, so no
+     * players may be inside it.
+     *
+     * @param buildWorld The world to compact, which must be {@link #isSupported(BuildWorld) supported}
+     * @return A future which completes on the main thread once the compacted files have been moved into place
+     */
+    public CompletableFuture<Result> compact(BuildWorld buildWorld) {
+        String worldName = buildWorld.getName();
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        if (!isSupported(buildWorld) || worldManager.getWorldArchiver().isArchived(worldName)
+                || worldManager.getBackupManager().isRunning(worldName) || isRunning(worldName)
+                || !worldManager.reserveExisting(worldName)) {
+            result.completeExceptionally(new IllegalStateException("Unable to compact " + worldName + " right now"));
+            return result;
+        }
+        runningWorlds.add(worldName);
+
+        if (Bukkit.getWorld(worldName) != null) {
+            buildWorld.forceUnload(true);
+        }
+        if (Bukkit.getWorld(worldName) != null) {
+            runningWorlds.remove(worldName);
+            worldManager.release(worldName);
+            result.completeExceptionally(new IllegalStateException("Unable to unload " + worldName));
+            return result;
+        }
+
+        Path worldFolder = Bukkit.getWorldContainer().toPath().resolve(worldName);
+        FileOperations fileOperations = plugin.getFileOperations();
+        WorldType worldType = buildWorld.getType();
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return findRegionFiles(worldFolder);
+            } catch (IOException e) {
+                throw new FileOperations.FileOperationException("Unable to find the region files of " + worldName, e);
+            }
+        }, fileOperations.getExecutor()).thenCompose(regionFiles -> {
+            List<CompletableFuture<Void>> compactions = new ArrayList<>();
+            Map<Path, RegionFileCompactor> compactors = new HashMap<>();
+            Map<Path, Path> compactedFiles = new HashMap<>();
+            for (Path regionFile : regionFiles) {
+                RegionFileCompactor compactor = new RegionFileCompactor(regionFile, worldType);
+                compactors.put(regionFile, compactor);
+                compactions.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        Path compactedFile = compactor.compact();
+                        if (compactedFile != null) {
+                            synchronized (compactedFiles) {
+                                compactedFiles.put(regionFile, compactedFile);
+                            }
+                        }
+                    } catch (IOException e) {
+                        throw new FileOperations.FileOperationException("Unable to compact " + regionFile, e);
+                    }
+                }, fileOperations.getExecutor()));
+            }
+
+            return CompletableFuture.allOf(compactions.toArray(new CompletableFuture[0])).handle((ignored, throwable) -> {
+                if (throwable != null) {
+                    deleteCompactedFiles(compactedFiles);
+                    throw new FileOperations.FileOperationException("Unable to compact " + worldName, throwable);
+                }
+                return new Result(regionFiles.size(), compactors, compactedFiles);
+            });
+        }).whenComplete((compaction, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            // The region files are replaced within this task, so the name cannot be taken before they have been moved
+            runningWorlds.remove(worldName);
+            worldManager.release(worldName);
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+
+            if (Bukkit.getWorld(worldName) != null) {
+                deleteCompactedFiles(compaction.compactedFiles);
+                result.completeExceptionally(new IllegalStateException("The world " + worldName + " has been loaded while it was compacted"));
+                return;
+            }
+
+            try {
+                replaceRegionFiles(compaction.compactedFiles);
+            } catch (IOException e) {
+                deleteCompactedFiles(compaction.compactedFiles);
+                result.completeExceptionally(e);
+                return;
+            }
+
+            logger.info(String.format("Compacted \"%s\": removed %d of %d chunks, reclaiming %s", worldName,
+                    compaction.getRemovedChunks(), compaction.getRemovedChunks() + compaction.getKeptChunks(), FileUtils.formatSize(compaction.getReclaimedBytes())));
+            result.complete(compaction);
+        }));
+        return result;
+    }
+
+    private List<Path> findRegionFiles(Path worldFolder) throws IOException {
+        if (!Files.isDirectory(worldFolder)) {
+            throw new IOException("The folder " + worldFolder + " does not exist");
+        }
+
+        try (Stream<Path> paths = Files.walk(worldFolder, 3)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(".mca")
+                    && path.getParent().getFileName().toString().equals("region")
+            ).collect(Collectors.toList());
+        }
+    }
+
+    private void replaceRegionFiles(Map<Path, Path> compactedFiles) throws IOException {
+        for (Map.Entry<Path, Path> entry : compactedFiles.entrySet()) {
+            Path regionFile = entry.getKey();
+            Path compactedFile = entry.getValue();
+            if (Files.exists(compactedFile)) {
+                Files.move(compactedFile, regionFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.delete(regionFile);
+            }
+        }
+    }
+
+    private void deleteCompactedFiles(Map<Path, Path> compactedFiles) {
+        synchronized (compactedFiles) {
+            for (Path compactedFile : compactedFiles.values()) {
+                try {
+                    Files.deleteIfExists(compactedFile);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Unable to delete " + compactedFile, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The outcome of compacting a world.
+     */
+    public static class Result {
+
+        private final int regionFiles;
+        private final Map<Path, Path> compactedFiles;
+        private final int removedChunks;
+        private final int keptChunks;
+        private final long reclaimedBytes;
+
+        private Result(int regionFiles, Map<Path, RegionFileCompactor> compactors, Map<Path, Path> compactedFiles) {
+            this.regionFiles = regionFiles;
+            this.compactedFiles = compactedFiles;
+            int removed = 0;
+            int kept = 0;
+            long reclaimed = 0;
+            for (Map.Entry<Path, RegionFileCompactor> entry : compactors.entrySet()) {
+                RegionFileCompactor compactor = entry.getValue();
+                kept += compactor.getKeptChunks();
+                // Files which could not be made smaller are left untouched
+                if (compactedFiles.containsKey(entry.getKey())) {
+                    removed += compactor.getRemovedChunks();
+                    reclaimed += compactor.getReclaimedBytes();
+                }
+            }
+            this.removedChunks = removed;
+            this.keptChunks = kept;
+            this.reclaimedBytes = reclaimed;
+        }
+
+        public int getRegionFiles() {
+            return regionFiles;
+        }
+
+        /**
+         * @return The amount of region files which have been rewritten or deleted
+         */
+        public int getCompactedRegionFiles() {
+            return compactedFiles.size();
+        }
+
+        public int getRemovedChunks() {
+            return removedChunks;
+        }
+
+        public int getKeptChunks() {
+            return keptChunks;
+        }
+
+        public long getReclaimedBytes() {
+            return reclaimedBytes;
+        }
+    }
+}
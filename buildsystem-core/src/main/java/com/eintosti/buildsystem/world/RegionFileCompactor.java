@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import com.eintosti.buildsystem.world.data.WorldType;
+import dev.dewy.nbt.Nbt;
+import dev.dewy.nbt.api.Tag;
+import dev.dewy.nbt.tags.array.LongArrayTag;
+import dev.dewy.nbt.tags.collection.CompoundTag;
+import dev.dewy.nbt.tags.collection.ListTag;
+import dev.dewy.nbt.tags.primitive.ByteTag;
+import dev.dewy.nbt.tags.primitive.IntTag;
+import dev.dewy.nbt.tags.primitive.StringTag;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Removes chunks from a region file which are identical to what the generator of a {@link WorldType#VOID void} or
+ * {@link WorldType#FLAT flat} world creates, as they are generated again the same way once they are loaded.
+ * <p>
+ * Every chunk is read from the region file and checked block by block: a void chunk may only contain air, a
+ * flat chunk only the default layers of bedrock, dirt and grass with air above them. Chunks which contain block
+ * entities or entities, chunks in the format used before 1.13 and chunks which cannot be read are always kept. The
+ * remaining chunks are written to a new, gap-free region file next to the original one.
+ * <p>
+ * The chunks are read into heap buffers rather than memory-mapping the file, as a mapped file can neither be replaced
+ * nor deleted on Windows until the mapping has been garbage collected.
+ *
+ * @author einTosti
+ */
+class RegionFileCompactor {
+
+    private static final int SECTOR_SIZE = 4096;
+    private static final int HEADER_SIZE = 2 * SECTOR_SIZE;
+    private static final int CHUNKS = 1024;
+    private static final int BLOCKS_PER_SECTION = 4096;
+    /**
+     * Since 20w17a, entries of block states no longer span multiple longs.
+     */
+    private static final int PADDED_BLOCK_STATES_VERSION = 2529;
+    private static final Set<String> AIR = new HashSet<>(Arrays.asList("minecraft:air", "minecraft:cave_air", "minecraft:void_air"));
+    private static final String[] FLAT_LAYERS = {"minecraft:bedrock", "minecraft:dirt", "minecraft:dirt", "minecraft:grass_block"};
+
+    private final Path regionFile;
+    private final WorldType worldType;
+
+    private int removedChunks;
+    private int keptChunks;
+    private long reclaimedBytes;
+
+    RegionFileCompactor(Path regionFile, WorldType worldType) {
+        this.regionFile = regionFile;
+        this.worldType = worldType;
+    }
+
+    /**
+     * Compacts the region file. The original file is not modified.
+     *
+     * @return The compacted region file, which has to be moved over the original one, or {@code null} if the file
+     * cannot be made smaller. If no chunks are left, the returned file does not exist and the original file has to be
+     * deleted.
+     */
+    @Nullable
+    Path compact() throws IOException {
+        Path compactedFile = regionFile.resolveSibling(regionFile.getFileName() + ".compact");
+        long originalSize;
+        try (FileChannel in = FileChannel.open(regionFile, StandardOpenOption.READ)) {
+            originalSize = in.size();
+            if (originalSize < HEADER_SIZE) {
+                return null;
+            }
+
+            ByteBuffer header = read(in, 0, HEADER_SIZE);
+            List<Integer> keptIndices = new ArrayList<>();
+            for (int i = 0; i < CHUNKS; i++) {
+                int location = header.getInt(i * 4);
+                if (location == 0) {
+                    continue;
+                }
+
+                if ((long) (location >>> 8) * SECTOR_SIZE >= originalSize) {
+                    // The region file is corrupted, leave it to the server to deal with
+                    return null;
+                }
+
+                if (isDefaultChunk(in, location)) {
+                    removedChunks++;
+                } else {
+                    keptIndices.add(i);
+                }
+            }
+            this.keptChunks = keptIndices.size();
+
+            if (keptIndices.isEmpty()) {
+                this.reclaimedBytes = originalSize;
+                Files.deleteIfExists(compactedFile);
+                return compactedFile;
+            }
+
+            long compactedSize = write(in, header, keptIndices, compactedFile);
+            if (compactedSize >= originalSize) {
+                Files.delete(compactedFile);
+                this.removedChunks = 0;
+                return null;
+            }
+
+            this.reclaimedBytes = originalSize - compactedSize;
+            return compactedFile;
+        }
+    }
+
+    /**
+     * Writes the given chunks to a new region file, without any unused sectors between them.
+     *
+     * @return The size of the new file
+     */
+    private long write(FileChannel in, ByteBuffer regionHeader, List<Integer> chunkIndices, Path target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int sector = HEADER_SIZE / SECTOR_SIZE;
+            out.position(HEADER_SIZE);
+            for (int i : chunkIndices) {
+                int location = regionHeader.getInt(i * 4);
+                int sectors = location & 0xFF;
+                ByteBuffer chunk = readChunkSectors(in, location);
+                int length = chunk.remaining() >= 4 ? chunk.getInt(0) + 4 : 0;
+                if (length > 4 && length <= sectors * SECTOR_SIZE) {
+                    sectors = (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+                    chunk.limit(Math.min(sectors * SECTOR_SIZE, chunk.limit()));
+                }
+
+                int padding = sectors * SECTOR_SIZE - chunk.remaining();
+                while (chunk.hasRemaining()) {
+                    out.write(chunk);
+                }
+                if (padding > 0) {
+                    out.write(ByteBuffer.allocate(padding));
+                }
+
+                header.putInt(i * 4, sector << 8 | sectors);
+                header.putInt(SECTOR_SIZE + i * 4, regionHeader.getInt(SECTOR_SIZE + i * 4));
+                sector += sectors;
+            }
+
+            out.position(0);
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            return out.size();
+        }
+    }
+
+    private boolean isDefaultChunk(FileChannel in, int location) {
+        try {
+            ByteBuffer chunk = readChunkSectors(in, location);
+            if (chunk.remaining() < 5) {
+                return false;
+            }
+
+            int length = chunk.getInt(0) - 1;
+            byte compression = chunk.get(4);
+            if (length <= 0 || 5 + length > chunk.remaining()) {
+                return false;
+            }
+
+            byte[] data = new byte[length];
+            chunk.position(5);
+            chunk.get(data);
+
+            CompoundTag root = readChunk(compression, data);
+            return root != null && hasDefaultBlocks(root);
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the sectors which the region file's header assigns to a chunk.
+     */
+    private ByteBuffer readChunkSectors(FileChannel in, int location) throws IOException {
+        return read(in, (long) (location >>> 8) * SECTOR_SIZE, (location & 0xFF) * SECTOR_SIZE);
+    }
+
+    /**
+     * Reads up to {@code length} bytes from the given position, stopping early at the end of the file.
+     *
+     * @return A buffer which contains the bytes that have been read
+     */
+    private ByteBuffer read(FileChannel in, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Nullable
+    private CompoundTag readChunk(byte compression, byte[] data) throws IOException {
+        InputStream in;
+        switch (compression) {
+            case 1:
+                in = new GZIPInputStream(new ByteArrayInputStream(data));
+                break;
+            case 2:
+                in = new InflaterInputStream(new ByteArrayInputStream(data));
+                break;
+            case 3:
+                in = new ByteArrayInputStream(data);
+                break;
+            default:
+                // Chunks stored in separate files or with an unsupported compression are kept
+                return null;
+        }
+
+        try (DataInputStream input = new DataInputStream(in)) {
+            return new Nbt().fromStream(input);
+        }
+    }
+
+    private boolean hasDefaultBlocks(CompoundTag root) {
+        int dataVersion = getInt(root, "DataVersion");
+        boolean padded = dataVersion >= PADDED_BLOCK_STATES_VERSION;
+
+        ListTag<CompoundTag> sections = getList(root, "sections");
+        int minY;
+        if (sections != null) {
+            // Since 1.18, the chunk is stored at the root and the world starts at y = -64
+            if (!isEmpty(getList(root, "block_entities"))) {
+                return false;
+            }
+            minY = -64;
+        } else {
+            CompoundTag level = getCompound(root, "Level");
+            if (level == null || !isEmpty(getList(level, "TileEntities")) || !isEmpty(getList(level, "Entities"))) {
+                return false;
+            }
+            sections = getList(level, "Sections");
+            minY = 0;
+        }
+
+        if (sections == null) {
+            return false;
+        }
+
+        boolean hasLayers = worldType != WorldType.FLAT;
+        for (CompoundTag section : sections.getValue()) {
+            int sectionY = getByte(section, "Y");
+            CompoundTag blockStates = getCompound(section, "block_states");
+            ListTag<CompoundTag> palette;
+            LongArrayTag data;
+            if (blockStates != null) {
+                palette = getList(blockStates, "palette");
+                data = getLongArray(blockStates, "data");
+            } else if (section.get("Blocks") != null) {
+                // Numeric block ids have been replaced in 1.13
+                return false;
+            } else {
+                palette = getList(section, "Palette");
+                data = getLongArray(section, "BlockStates");
+            }
+
+            if (palette == null || palette.getValue().isEmpty()) {
+                continue;
+            }
+
+            if (!hasDefaultBlocks(sectionY * 16, minY, palette, data, padded)) {
+                return false;
+            }
+            hasLayers |= sectionY * 16 == minY;
+        }
+        return hasLayers;
+    }
+
+    private boolean hasDefaultBlocks(int sectionMinY, int minY, ListTag<CompoundTag> palette, @Nullable LongArrayTag data, boolean padded) {
+        String[] names = new String[palette.getValue().size()];
+        for (int i = 0; i < names.length; i++) {
+            StringTag name = palette.getValue().get(i).get("Name");
+            names[i] = name != null ? name.getValue() : "";
+        }
+
+        if (names.length == 1) {
+            for (int y = 0; y < 16; y++) {
+                if (!isDefaultBlock(names[0], sectionMinY + y, minY)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (data == null) {
+            return false;
+        }
+
+        long[] values = data.getValue();
+        int bits = Math.max(4, 32 - Integer.numberOfLeadingZeros(names.length - 1));
+        long mask = (1L << bits) - 1;
+        int valuesPerLong = 64 / bits;
+        for (int i = 0; i < BLOCKS_PER_SECTION; i++) {
+            long value;
+            if (padded) {
+                value = values[i / valuesPerLong] >>> ((i % valuesPerLong) * bits);
+            } else {
+                long bitIndex = (long) i * bits;
+                int longIndex = (int) (bitIndex >> 6);
+                int bitOffset = (int) (bitIndex & 63);
+                value = values[longIndex] >>> bitOffset;
+                if (bitOffset + bits > 64) {
+                    value |= values[longIndex + 1] << (64 - bitOffset);
+                }
+            }
+
+            // Blocks are ordered by y, z and then x
+            if (!isDefaultBlock(names[(int) (value & mask)], sectionMinY + (i >> 8), minY)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isDefaultBlock(String name, int y, int minY) {
+        int layer = y - minY;
+        if (worldType == WorldType.FLAT && layer >= 0 && layer < FLAT_LAYERS.length) {
+            return FLAT_LAYERS[layer].equals(name);
+        }
+        return AIR.contains(name);
+    }
+
+    private boolean isEmpty(@Nullable ListTag<?> list) {
+        return list == null || list.getValue().isEmpty();
+    }
+
+    @Nullable
+    private CompoundTag getCompound(CompoundTag compound, String name) {
+        Object tag = compound.get(name);
+        return tag instanceof CompoundTag ? (CompoundTag) tag : null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T extends Tag> ListTag<T> getList(CompoundTag compound, String name) {
+        Object tag = compound.get(name);
+        return tag instanceof ListTag ? (ListTag<T>) tag : null;
+    }
+
+    @Nullable
+    private LongArrayTag getLongArray(CompoundTag compound, String name) {
+        Object tag = compound.get(name);
+        return tag instanceof LongArrayTag ? (LongArrayTag) tag : null;
+    }
+
+    private int getInt(CompoundTag compound, String name) {
+        Object tag = compound.get(name);
+        return tag instanceof IntTag ? ((IntTag) tag).getValue() : -1;
+    }
+
+    private int getByte(CompoundTag compound, String name) {
+        Object tag = compound.get(name);
+        return tag instanceof ByteTag ? ((ByteTag) tag).getValue() : 0;
+    }
+
+    int getRemovedChunks() {
+        return removedChunks;
+    }
+
+    int getKeptChunks() {
+        return keptChunks;
+    }
+
+    long getReclaimedBytes() {
+        return reclaimedBytes;
+    }
+}
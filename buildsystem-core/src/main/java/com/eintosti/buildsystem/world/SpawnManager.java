@@ -107,6 +107,11 @@ public class SpawnManager {
 
         buildWorld.load();
         this.spawnName = worldName;
-        this.spawn = new Location(Bukkit.getWorld(worldName), x, y, z, yaw, pitch);
+        Location spawn = new Location(Bukkit.getWorld(worldName), x, y, z, yaw, pitch);
+        this.spawn = spawn;
+        if (spawn.getWorld() == null) {
+            // Archived worlds are restored by the load queue on another thread
+            worldManager.queueLoad(buildWorld, null).thenAccept(spawn::setWorld);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.config.ConfigValues;
+import com.eintosti.buildsystem.util.FileOperations;
+import com.eintosti.buildsystem.util.FileUtils;
+import com.eintosti.buildsystem.world.data.WorldStatus;
+import org.bukkit.Bukkit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Compresses the folders of {@link WorldStatus#ARCHIVE archived} worlds which have not been loaded for
+ * {@code archive.compress-after-days} days and restores them once they are needed again.
+ * <p>
+ * Every {@link #CHECK_INTERVAL} ticks, idle archived worlds are packed into a zip file in the plugin's
+ * {@code archives} folder on the {@link FileOperations} threads, after which the world folder is deleted. The size of
+ * the world folder is stored as the zip file's comment, so that the saved disk space can be reported. Loading an
+ * archived world through the {@link WorldLoadQueue} restores its folder first. Worlds are only compressed if worlds are
+ * unloaded automatically. Must only be used from the main thread, unless stated otherwise.
+ *
+ * @author einTosti
+ */
+public class WorldArchiver {
+
+    private static final String ARCHIVE_EXTENSION = ".zip";
+    private static final String RESTORE_PREFIX = ".restore-";
+    private static final long CHECK_INTERVAL = 20L * 60 * 5;
+
+    private final BuildSystem plugin;
+    private final Logger logger;
+    private final ConfigValues configValues;
+    private final WorldManager worldManager;
+    private final FileOperations fileOperations;
+    private final Path archiveFolder;
+
+    /**
+     * The world and archive sizes of all archived worlds. Accessed from the I/O threads.
+     */
+    private final Map<String, ArchiveSize> archiveSizes;
+    /**
+     * The running archive or restore operation of a world.
+     */
+    private final Map<String, CompletableFuture<Void>> operations;
+
+    WorldArchiver(BuildSystem plugin, WorldManager worldManager) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.configValues = plugin.getConfigValues();
+        this.worldManager = worldManager;
+        this.fileOperations = plugin.getFileOperations();
+        this.archiveFolder = new File(plugin.getDataFolder(), "archives").toPath();
+        this.archiveSizes = new ConcurrentHashMap<>();
+        this.operations = new HashMap<>();
+
+        fileOperations.getExecutor().execute(this::loadArchiveSizes);
+        Bukkit.getScheduler().runTaskTimer(plugin, this::archiveIdleWorlds, CHECK_INTERVAL, CHECK_INTERVAL);
+    }
+
+    /**
+     * Reads the sizes of the existing archives and deletes folders whose restoration did not finish before the server
+     * was stopped. Called on an I/O thread.
+     */
+    private void loadArchiveSizes() {
+        File[] restoreFolders = Bukkit.getWorldContainer().listFiles(file -> file.isDirectory() && file.getName().startsWith(RESTORE_PREFIX));
+        if (restoreFolders != null) {
+            for (File restoreFolder : restoreFolders) {
+                fileOperations.deleteDirectory(restoreFolder.toPath(), null);
+            }
+        }
+
+        if (!Files.isDirectory(archiveFolder)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(archiveFolder)) {
+            paths.filter(path -> path.getFileName().toString().endsWith(ARCHIVE_EXTENSION)).forEach(archive -> {
+                String fileName = archiveFolder.relativize(archive).toString().replace(File.separatorChar, '/');
+                String worldName = fileName.substring(0, fileName.length() - ARCHIVE_EXTENSION.length());
+                try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+                    archiveSizes.put(worldName, new ArchiveSize(Long.parseLong(zipFile.getComment()), Files.size(archive)));
+                } catch (IOException | NumberFormatException e) {
+                    logger.warning("Unable to read the size of the archive of " + worldName);
+                }
+            });
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to read the world archives", e);
+        }
+
+        if (!archiveSizes.isEmpty()) {
+            logger.info(archiveSizes.size() + " archived worlds are compressed, saving " + FileUtils.formatSize(getTotalSavedBytes()));
+        }
+    }
+
+    /**
+     * Gets whether the folder of the world with the given name is compressed or is currently being compressed.
+     *
+     * @param worldName The name of the world
+     * @return {@code true} if the world has to be restored before it can be loaded, otherwise {@code false}
+     */
+    public boolean isArchived(String worldName) {
+        return operations.containsKey(worldName) || Files.isRegularFile(getArchiveFile(worldName));
+    }
+
+    /**
+     * Gets the amount of disk space which is saved by compressing the world with the given name.
+     *
+     * @param worldName The name of the world
+     * @return The saved amount of bytes, or -1 if the world is not compressed
+     */
+    public long getSavedBytes(String worldName) {
+        ArchiveSize archiveSize = archiveSizes.get(worldName);
+        return archiveSize != null ? archiveSize.getSavedBytes() : -1;
+    }
+
+    /**
+     * Gets the amount of disk space which is saved by compressing all archived worlds.
+     *
+     * @return The saved amount of bytes
+     */
+    public long getTotalSavedBytes() {
+        return archiveSizes.values().stream().mapToLong(ArchiveSize::getSavedBytes).sum();
+    }
+
+    private Path getArchiveFile(String worldName) {
+        return archiveFolder.resolve(worldName + ARCHIVE_EXTENSION);
+    }
+
+    private void archiveIdleWorlds() {
+        int days = configValues.getArchiveCompressAfterDays();
+        if (days <= 0 || !configValues.isUnloadWorlds()) {
+            return;
+        }
+
+        long minLastModified = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days);
+        for (BuildWorld buildWorld : worldManager.getStoredBuildWorlds(WorldStatus.ARCHIVE)) {
+            String worldName = buildWorld.getName();
+            // Worlds which are about to be loaded or whose folder is being moved must not be compressed
+            if (buildWorld.isLoaded() || Bukkit.getWorld(worldName) != null || isArchived(worldName)
+                    || worldManager.isQueued(buildWorld) || worldManager.isReserved(worldName)
+                    || worldManager.getBackupManager().isRunning(worldName)
+                    || worldManager.getRegionCompactor().isRunning(worldName)
+                    || configValues.getBlackListedWorldsToUnload().contains(worldName)) {
+                continue;
+            }
+
+            // The level.dat is saved whenever the world is unloaded
+            File levelFile = new File(new File(Bukkit.getWorldContainer(), worldName), "level.dat");
+            if (levelFile.isFile() && levelFile.lastModified() < minLastModified) {
+                archive(worldName);
+            }
+        }
+    }
+
+    private void archive(String worldName) {
+        Path worldFolder = new File(Bukkit.getWorldContainer(), worldName).toPath();
+        Path archiveFile = getArchiveFile(worldName);
+        CompletableFuture<Void> operation = CompletableFuture.supplyAsync(() -> {
+            try {
+                return compress(worldFolder, archiveFile);
+            } catch (IOException e) {
+                throw new FileOperations.FileOperationException("Unable to compress " + worldName, e);
+            }
+        }, fileOperations.getExecutor()).thenCompose(archiveSize -> {
+            archiveSizes.put(worldName, archiveSize);
+            logger.info(String.format("Compressed archived world \"%s\" from %s to %s (%s saved in total)", worldName,
+                    FileUtils.formatSize(archiveSize.worldSize),
+                    FileUtils.formatSize(archiveSize.archiveSize),
+                    FileUtils.formatSize(getTotalSavedBytes())
+            ));
+            return fileOperations.deleteDirectory(worldFolder, null);
+        }).thenApply(deleted -> null);
+
+        track(worldName, operation, "Unable to compress archived world " + worldName);
+        worldManager.getLevelMetadataIndex().invalidate(worldName);
+    }
+
+    /**
+     * Called on an I/O thread.
+     */
+    private ArchiveSize compress(Path worldFolder, Path archiveFile) throws IOException {
+        long worldSize = FileUtils.getDirectorySize(worldFolder.toFile());
+        Files.createDirectories(archiveFile.getParent());
+        Path tempFile = archiveFile.resolveSibling(archiveFile.getFileName() + ".tmp");
+
+        try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.setComment(String.valueOf(worldSize));
+            Files.walkFileTree(worldFolder, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    if (file.getFileName().toString().equals("session.lock")) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    ZipEntry entry = new ZipEntry(worldFolder.relativize(file).toString().replace(File.separatorChar, '/'));
+                    entry.setTime(attributes.lastModifiedTime().toMillis());
+                    out.putNextEntry(entry);
+                    Files.copy(file, out);
+                    out.closeEntry();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        Files.move(tempFile, archiveFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new ArchiveSize(worldSize, Files.size(archiveFile));
+    }
+
+    /**
+     * Restores the folder of the world with the given name if it has been compressed. If the world is currently being
+     * compressed, it is restored as soon as it has been compressed.
+     *
+     * @param worldName The name of the world
+     * @return A future which completes on an I/O thread once the world's folder has been restored
+     */
+    public CompletableFuture<Void> restore(String worldName) {
+        CompletableFuture<Void> pending = operations.getOrDefault(worldName, CompletableFuture.completedFuture(null));
+        CompletableFuture<Void> operation = pending.handle((result, throwable) -> null).thenRunAsync(() -> {
+            Path archiveFile = getArchiveFile(worldName);
+            if (!Files.isRegularFile(archiveFile)) {
+                return;
+            }
+
+            try {
+                decompress(worldName, archiveFile);
+            } catch (IOException e) {
+                throw new FileOperations.FileOperationException("Unable to restore " + worldName, e);
+            }
+        }, fileOperations.getExecutor());
+
+        track(worldName, operation, "Unable to restore archived world " + worldName);
+        return operation;
+    }
+
+    /**
+     * Called on an I/O thread.
+     */
+    private void decompress(String worldName, Path archiveFile) throws IOException {
+        Path worldContainer = Bukkit.getWorldContainer().toPath();
+        Path worldFolder = worldContainer.resolve(worldName);
+        if (Files.exists(worldFolder)) {
+            throw new IOException("The folder " + worldFolder + " already exists");
+        }
+
+        Path restoreFolder = worldContainer.resolve(RESTORE_PREFIX + worldName.replace('/', '_') + "-" + System.currentTimeMillis()).normalize();
+        try (ZipFile zipFile = new ZipFile(archiveFile.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                Path file = restoreFolder.resolve(entry.getName()).normalize();
+                if (!file.startsWith(restoreFolder)) {
+                    throw new IOException("Invalid entry " + entry.getName());
+                }
+
+                if (entry.isDirectory()) {
+                    Files.createDirectories(file);
+                    continue;
+                }
+
+                Files.createDirectories(file.getParent());
+                try (InputStream in = new BufferedInputStream(zipFile.getInputStream(entry));
+                     OutputStream out = Files.newOutputStream(file)) {
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                }
+                Files.setLastModifiedTime(file, FileTime.fromMillis(entry.getTime()));
+            }
+        } catch (IOException e) {
+            fileOperations.deleteDirectory(restoreFolder, null);
+            throw e;
+        }
+
+        Files.createDirectories(worldFolder.getParent());
+        Files.move(restoreFolder, worldFolder, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(archiveFile);
+        archiveSizes.remove(worldName);
+        logger.info("Restored archived world \"" + worldName + "\"");
+    }
+
+    /**
+     * Deletes the archive of the world with the given name, e.g. because the world has been deleted.
+     *
+     * @param worldName The name of the world
+     * @return A future which completes on an I/O thread once the archive has been deleted
+     */
+    public CompletableFuture<Void> delete(String worldName) {
+        CompletableFuture<Void> pending = operations.getOrDefault(worldName, CompletableFuture.completedFuture(null));
+        CompletableFuture<Void> operation = pending.handle((result, throwable) -> null).thenRunAsync(() -> {
+            try {
+                Files.deleteIfExists(getArchiveFile(worldName));
+                archiveSizes.remove(worldName);
+            } catch (IOException e) {
+                throw new FileOperations.FileOperationException("Unable to delete the archive of " + worldName, e);
+            }
+        }, fileOperations.getExecutor());
+
+        track(worldName, operation, "Unable to delete the archive of " + worldName);
+        return operation;
+    }
+
+    /**
+     * Remembers the operation until it has completed, so that following operations on the same world wait for it.
+     */
+    private void track(String worldName, CompletableFuture<Void> operation, String errorMessage) {
+        operations.put(worldName, operation);
+        operation.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                logger.log(Level.SEVERE, errorMessage, throwable);
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> operations.remove(worldName, operation));
+        });
+    }
+
+    private static class ArchiveSize {
+
+        private final long worldSize;
+        private final long archiveSize;
+
+        private ArchiveSize(long worldSize, long archiveSize) {
+            this.worldSize = worldSize;
+            this.archiveSize = archiveSize;
+        }
+
+        private long getSavedBytes() {
+            return Math.max(0, worldSize - archiveSize);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.Messages;
+import com.eintosti.buildsystem.util.FileOperations;
+import com.eintosti.buildsystem.util.FileUtils;
+import com.eintosti.buildsystem.world.data.LevelMetadata;
+import com.eintosti.buildsystem.world.data.WorldType;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports a list of world folders in two stages.
+ * <p>
+ * First, all folders are validated in parallel on the {@link FileOperations} threads: the name is checked for invalid characters, the
+ * {@code level.dat} must be readable and not be from a newer version of Minecraft, and the size of the folder is
+ * measured. Invalid worlds are reported as soon as they are found. Valid worlds are then registered and created on the
+ * main thread. As creating a world can take longer than a tick, the time spent importing worlds is limited to
+ * {@code import-all.tick-budget} milliseconds per tick on average: an import which exceeds the budget is followed by
+ * as many ticks without imports as the budget was exceeded.
+ *
+ * @author einTosti
+ */
+class WorldImportTask implements Runnable {
+
+    private static final long PROGRESS_INTERVAL = 20L * 5;
+
+    private final BuildSystem plugin;
+    private final WorldManager worldManager;
+    private final Player player;
+    private final String[] worldNames;
+    private final long tickBudget;
+
+    private final Queue<ValidatedWorld> validatedWorlds;
+    private final Queue<Map.Entry<String, Map.Entry<String, Object>[]>> messages;
+    private final AtomicInteger pendingValidations;
+    private final AtomicInteger validWorlds;
+    private final AtomicLong validSize;
+
+    private BukkitTask task;
+    private int importedWorlds;
+    private int skippedTicks;
+    private long ticks;
+    private boolean validationReported;
+
+    WorldImportTask(BuildSystem plugin, WorldManager worldManager, Player player, String[] worldNames) {
+        this.plugin = plugin;
+        this.worldManager = worldManager;
+        this.player = player;
+        this.worldNames = worldNames;
+        this.tickBudget = TimeUnit.MILLISECONDS.toNanos(Math.max(1, plugin.getConfigValues().getImportTickBudget()));
+
+        this.validatedWorlds = new ConcurrentLinkedQueue<>();
+        this.messages = new ConcurrentLinkedQueue<>();
+        this.pendingValidations = new AtomicInteger(worldNames.length);
+        this.validWorlds = new AtomicInteger();
+        this.validSize = new AtomicLong();
+    }
+
+    /**
+     * Starts validating the worlds and importing the valid ones.
+     */
+    void start() {
+        Messages.sendMessage(player, "worlds_importall_started", new AbstractMap.SimpleEntry<>("%amount%", worldNames.length));
+
+        LevelMetadataIndex levelMetadataIndex = worldManager.getLevelMetadataIndex();
+        int serverVersion = plugin.getServerVersion().getDataVersion();
+        ExecutorService executor = plugin.getFileOperations().getExecutor();
+        for (String worldName : worldNames) {
+            executor.execute(() -> {
+                try {
+                    validate(worldName, levelMetadataIndex, serverVersion);
+                } finally {
+                    pendingValidations.decrementAndGet();
+                }
+            });
+        }
+
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this, 1L, 1L);
+    }
+
+    /**
+     * Called on an I/O thread.
+     */
+    private void validate(String worldName, LevelMetadataIndex levelMetadataIndex, int serverVersion) {
+        for (String charString : worldName.split("")) {
+            if (charString.matches("[^A-Za-z\\d/_-]")) {
+                report("worlds_importall_invalid_character",
+                        new AbstractMap.SimpleEntry<>("%world%", worldName),
+                        new AbstractMap.SimpleEntry<>("%char%", charString)
+                );
+                return;
+            }
+        }
+
+        LevelMetadata levelMetadata = levelMetadataIndex.getMetadata(worldName);
+        if (levelMetadata == null) {
+            report("worlds_importall_no_level", new AbstractMap.SimpleEntry<>("%world%", worldName));
+            return;
+        }
+
+        if (levelMetadata.getDataVersion() > serverVersion) {
+            report("worlds_importall_newer_version", new AbstractMap.SimpleEntry<>("%world%", worldName));
+            return;
+        }
+
+        File worldFolder = new File(Bukkit.getWorldContainer(), worldName);
+        try {
+            validSize.addAndGet(FileUtils.getDirectorySize(worldFolder));
+        } catch (IOException e) {
+            report("worlds_importall_no_level", new AbstractMap.SimpleEntry<>("%world%", worldName));
+            return;
+        }
+
+        validWorlds.incrementAndGet();
+        validatedWorlds.add(new ValidatedWorld(worldName, FileUtils.getDirectoryCreation(worldFolder)));
+    }
+
+    @SafeVarargs
+    private final void report(String key, Map.Entry<String, Object>... placeholders) {
+        messages.add(new AbstractMap.SimpleEntry<>(key, placeholders));
+    }
+
+    @Override
+    public void run() {
+        // Read before the messages are sent, so that no message of the last validation can be missed
+        boolean validationFinished = pendingValidations.get() == 0;
+        Map.Entry<String, Map.Entry<String, Object>[]> message;
+        while ((message = messages.poll()) != null) {
+            Messages.sendMessage(player, message.getKey(), message.getValue());
+        }
+
+        if (validationFinished && !validationReported) {
+            this.validationReported = true;
+            Messages.sendMessage(player, "worlds_importall_validated",
+                    new AbstractMap.SimpleEntry<>("%valid%", validWorlds.get()),
+                    new AbstractMap.SimpleEntry<>("%amount%", worldNames.length),
+                    new AbstractMap.SimpleEntry<>("%size%", FileUtils.formatSize(validSize.get()))
+            );
+        }
+
+        if (++ticks % PROGRESS_INTERVAL == 0 && !validatedWorlds.isEmpty()) {
+            Messages.sendMessage(player, "worlds_importall_progress",
+                    new AbstractMap.SimpleEntry<>("%imported%", importedWorlds),
+                    new AbstractMap.SimpleEntry<>("%amount%", worldNames.length)
+            );
+        }
+
+        if (skippedTicks > 0) {
+            skippedTicks--;
+            return;
+        }
+
+        long start = System.nanoTime();
+        ValidatedWorld validatedWorld;
+        while ((validatedWorld = validatedWorlds.poll()) != null) {
+            importWorld(validatedWorld);
+
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= tickBudget) {
+                this.skippedTicks = (int) (elapsed / tickBudget) - 1;
+                return;
+            }
+        }
+
+        if (validationFinished && validatedWorlds.isEmpty()) {
+            task.cancel();
+            Messages.sendMessage(player, "worlds_importall_finished");
+        }
+    }
+
+    private void importWorld(ValidatedWorld validatedWorld) {
+        String worldName = validatedWorld.name;
+        if (worldManager.getBuildWorld(worldName) != null || worldManager.isReserved(worldName)) {
+            Messages.sendMessage(player, "worlds_importall_world_already_imported", new AbstractMap.SimpleEntry<>("%world%", worldName));
+            return;
+        }
+
+        BuildWorld buildWorld = new BuildWorld(worldName, "-", null, WorldType.IMPORTED, validatedWorld.creation, false, null);
+        worldManager.addBuildWorld(buildWorld);
+        new BuildWorldCreator(plugin, buildWorld).setType(WorldType.VOID).generateBukkitWorld(false);
+        importedWorlds++;
+        Messages.sendMessage(player, "worlds_importall_world_imported", new AbstractMap.SimpleEntry<>("%world%", worldName));
+    }
+
+    private static class ValidatedWorld {
+
+        private final String name;
+        private final long creation;
+
+        private ValidatedWorld(String name, long creation) {
+            this.name = name;
+            this.creation = creation;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import com.cryptomorin.xseries.messages.Titles;
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.Messages;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads {@link BuildWorld}s one after another instead of all at once.
+ * <p>
+ * Creating a world blocks the main thread, so at most {@link #LOADS_PER_INTERVAL} worlds are loaded every
+ * {@link #LOAD_INTERVAL} ticks. Requesting a world which is already queued returns the pending request, and players who
+ * are waiting for a world are shown their position in the queue. Worlds which have been compressed by the
+ * {@link WorldArchiver} are restored on another thread before they are loaded, without holding up the rest of the
+ * queue. Must only be used from the main thread.
+ *
+ * @author einTosti
+ */
+class WorldLoadQueue {
+
+    private static final int LOADS_PER_INTERVAL = 1;
+    private static final long LOAD_INTERVAL = 10L;
+
+    private final BuildSystem plugin;
+    private final WorldArchiver worldArchiver;
+    private final Map<BuildWorld, LoadRequest> requests;
+
+    private BukkitTask loadTask;
+
+    WorldLoadQueue(BuildSystem plugin, WorldArchiver worldArchiver) {
+        this.plugin = plugin;
+        this.worldArchiver = worldArchiver;
+        this.requests = new LinkedHashMap<>();
+    }
+
+    /**
+     * Queues the given world to be loaded.
+     *
+     * @param buildWorld The world to load
+     * @param player     The player who is waiting for the world, if any
+     * @return A future which completes with the loaded world on the main thread
+     */
+    CompletableFuture<World> queue(BuildWorld buildWorld, @Nullable Player player) {
+        World world = buildWorld.getWorld();
+        if (buildWorld.isLoaded() && world != null) {
+            // The world is about to be used, so it must not be unloaded in the meantime
+            if (buildWorld.isUnloading()) {
+                buildWorld.resetUnloadTask();
+            }
+            return CompletableFuture.completedFuture(world);
+        }
+
+        LoadRequest request = requests.computeIfAbsent(buildWorld, this::createRequest);
+        if (player != null && request.players.add(player)) {
+            player.closeInventory();
+            sendQueuePosition(player, buildWorld, getPosition(buildWorld));
+        }
+
+        if (loadTask == null) {
+            this.loadTask = Bukkit.getScheduler().runTaskTimer(plugin, this::loadNext, 1L, LOAD_INTERVAL);
+        }
+        return request.future;
+    }
+
+    private LoadRequest createRequest(BuildWorld buildWorld) {
+        LoadRequest request = new LoadRequest();
+        if (!worldArchiver.isArchived(buildWorld.getName())) {
+            return request;
+        }
+
+        request.restoring = true;
+        worldArchiver.restore(buildWorld.getName()).whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            request.restoring = false;
+            if (throwable != null && requests.remove(buildWorld, request)) {
+                request.future.completeExceptionally(throwable);
+            }
+        }));
+        return request;
+    }
+
+    /**
+     * Gets whether the given world is waiting to be loaded.
+     *
+     * @param buildWorld The world
+     * @return {@code true} if the world has been queued, otherwise {@code false}
+     */
+    boolean isQueued(BuildWorld buildWorld) {
+        return requests.containsKey(buildWorld);
+    }
+
+    /**
+     * Gets whether no worlds are waiting to be loaded.
+     *
+     * @return {@code true} if the queue is empty, otherwise {@code false}
+     */
+    boolean isEmpty() {
+        return requests.isEmpty();
+    }
+
+    private void loadNext() {
+        Iterator<Map.Entry<BuildWorld, LoadRequest>> iterator = requests.entrySet().iterator();
+        int loads = 0;
+        while (loads < LOADS_PER_INTERVAL && iterator.hasNext()) {
+            Map.Entry<BuildWorld, LoadRequest> entry = iterator.next();
+            if (entry.getValue().restoring) {
+                continue;
+            }
+
+            iterator.remove();
+            load(entry.getKey(), entry.getValue());
+            loads++;
+        }
+
+        if (requests.isEmpty()) {
+            loadTask.cancel();
+            this.loadTask = null;
+            return;
+        }
+
+        int position = 1;
+        for (Map.Entry<BuildWorld, LoadRequest> entry : requests.entrySet()) {
+            for (Player player : entry.getValue().players) {
+                if (player.isOnline()) {
+                    sendQueuePosition(player, entry.getKey(), position);
+                }
+            }
+            position++;
+        }
+    }
+
+    private void load(BuildWorld buildWorld, LoadRequest request) {
+        for (Player player : request.players) {
+            if (player.isOnline()) {
+                Titles.sendTitle(player, 0, 70, 20, " ", Messages.getString("loading_world", new AbstractMap.SimpleEntry<>("%world%", buildWorld.getName())));
+            }
+        }
+
+        try {
+            buildWorld.load();
+        } catch (RuntimeException e) {
+            request.future.completeExceptionally(e);
+            return;
+        }
+
+        World world = buildWorld.getWorld();
+        if (world != null) {
+            request.future.complete(world);
+        } else {
+            request.future.completeExceptionally(new IllegalStateException("Unable to load world " + buildWorld.getName()));
+        }
+    }
+
+    private int getPosition(BuildWorld buildWorld) {
+        int position = 1;
+        for (BuildWorld queuedWorld : requests.keySet()) {
+            if (queuedWorld.equals(buildWorld)) {
+                return position;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    private void sendQueuePosition(Player player, BuildWorld buildWorld, int position) {
+        LoadRequest request = requests.get(buildWorld);
+        if (request != null && request.restoring) {
+            Titles.sendTitle(player, 0, 70, 20, " ", Messages.getString("loading_world_restoring", new AbstractMap.SimpleEntry<>("%world%", buildWorld.getName())));
+            return;
+        }
+
+        Titles.sendTitle(player, 0, 70, 20, " ", Messages.getString("loading_world_queued",
+                new AbstractMap.SimpleEntry<>("%world%", buildWorld.getName()),
+                new AbstractMap.SimpleEntry<>("%position%", position)
+        ));
+    }
+
+    private static class LoadRequest {
+
+        private final CompletableFuture<World> future = new CompletableFuture<>();
+        private final Set<Player> players = new LinkedHashSet<>();
+        private boolean restoring;
+    }
+}
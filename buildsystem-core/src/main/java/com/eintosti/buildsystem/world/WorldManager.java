@@ -13,17 +13,19 @@ import com.cryptomorin.xseries.messages.Titles;
 import com.eintosti.buildsystem.BuildSystem;
 import com.eintosti.buildsystem.Messages;
 import com.eintosti.buildsystem.config.ConfigValues;
-import com.eintosti.buildsystem.config.WorldConfig;
 import com.eintosti.buildsystem.navigator.world.FilteredWorldsInventory.Visibility;
+import com.eintosti.buildsystem.storage.WorldStorage;
 import com.eintosti.buildsystem.util.FileUtils;
 import com.eintosti.buildsystem.util.UUIDFetcher;
 import com.eintosti.buildsystem.util.external.PlayerChatInput;
+import com.eintosti.buildsystem.world.backup.BackupManager;
 import com.eintosti.buildsystem.world.data.WorldStatus;
 import com.eintosti.buildsystem.world.data.WorldType;
 import com.eintosti.buildsystem.world.generator.CustomGenerator;
 import com.eintosti.buildsystem.world.generator.Generator;
 import io.papermc.lib.PaperLib;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Difficulty;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -31,22 +33,37 @@ import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.generator.ChunkGenerator;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
@@ -54,18 +71,130 @@ import java.util.stream.Collectors;
  */
 public class WorldManager {
 
+    /**
+     * The radius of chunks around a world's spawn which is loaded before a player is teleported there.
+     */
+    private static final int TELEPORT_CHUNK_RADIUS = 1;
+    /**
+     * The prefix of world folders which are being deleted.
+     */
+    private static final String TOMBSTONE_PREFIX = ".deleted-";
+
     private final BuildSystem plugin;
     private final ConfigValues configValues;
-    private final WorldConfig worldConfig;
+    private final WorldStorage worldStorage;
 
-    private final List<BuildWorld> buildWorlds;
+    /**
+     * All registered worlds, keyed by their case-folded name and kept in insertion order.
+     */
+    private final Map<String, BuildWorld> buildWorlds;
+    private final Collection<BuildWorld> buildWorldsView;
+    /**
+     * Registered worlds whose {@link World} is currently loaded, keyed by the bukkit world's unique-id.
+     */
+    private final Map<UUID, BuildWorld> buildWorldsByUid;
+    /**
+     * Secondary indexes over all registered worlds which are updated whenever the indexed property changes.
+     */
+    private final Map<UUID, Set<BuildWorld>> buildWorldsByCreator;
+    private final Map<WorldStatus, Set<BuildWorld>> buildWorldsByStatus;
+    private final Map<Boolean, Set<BuildWorld>> buildWorldsByVisibility;
+    /**
+     * The case-folded names of world folders which are being copied or deleted by a rename and must neither be used nor
+     * loaded.
+     */
+    private final Set<String> reservedWorldNames;
+    private final WorldArchiver worldArchiver;
+    private final BackupManager backupManager;
+    private final RegionCompactor regionCompactor;
+    private final WorldLoadQueue worldLoadQueue;
+    private final WorldUnloadPolicy worldUnloadPolicy;
+    private final WorldUnloadScheduler<BuildWorld> worldUnloadScheduler;
+    private final LevelMetadataIndex levelMetadataIndex;
+    private final WorldPool worldPool;
 
     public WorldManager(BuildSystem plugin) {
         this.plugin = plugin;
         this.configValues = plugin.getConfigValues();
-        this.worldConfig = new WorldConfig(plugin);
+        this.worldStorage = plugin.getWorldStorage();
+
+        this.buildWorlds = new LinkedHashMap<>();
+        this.buildWorldsView = Collections.unmodifiableCollection(buildWorlds.values());
+        this.buildWorldsByUid = new HashMap<>();
+        this.buildWorldsByCreator = new HashMap<>();
+        this.buildWorldsByStatus = new EnumMap<>(WorldStatus.class);
+        this.buildWorldsByVisibility = new HashMap<>();
+        for (WorldStatus worldStatus : WorldStatus.values()) {
+            this.buildWorldsByStatus.put(worldStatus, new LinkedHashSet<>());
+        }
+        this.buildWorldsByVisibility.put(true, new LinkedHashSet<>());
+        this.buildWorldsByVisibility.put(false, new LinkedHashSet<>());
+        this.reservedWorldNames = new HashSet<>();
+        this.worldArchiver = new WorldArchiver(plugin, this);
+        this.backupManager = new BackupManager(plugin, this);
+        this.regionCompactor = new RegionCompactor(plugin, this);
+        this.worldLoadQueue = new WorldLoadQueue(plugin, worldArchiver);
+        this.worldUnloadPolicy = new WorldUnloadPolicy(plugin, this);
+        this.worldUnloadScheduler = new WorldUnloadScheduler<>(plugin, BuildWorld::getUnloadDeadline, buildWorld -> {
+            if (isRegistered(buildWorld)) {
+                buildWorld.unload();
+            }
+        });
+        this.levelMetadataIndex = new LevelMetadataIndex(plugin);
+        this.worldPool = new WorldPool(plugin, worldLoadQueue);
+    }
 
-        this.buildWorlds = new ArrayList<>();
+    /**
+     * Gets the key under which a world with the given name is registered.
+     * World names are compared case-insensitively.
+     *
+     * @param worldName The name of the world
+     * @return The case-folded name
+     */
+    private static String getKey(String worldName) {
+        return worldName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets whether a world folder with the given name is currently being copied or deleted, e.g. because a world is
+     * being renamed, so no world may be created, imported or loaded with that name.
+     *
+     * @param worldName The name of the world
+     * @return {@code true} if the name is reserved, otherwise {@code false}
+     */
+    public boolean isReserved(String worldName) {
+        return reservedWorldNames.contains(getKey(worldName));
+    }
+
+    /**
+     * Reserves the name of a world whose folder is about to be created on another thread.
+     *
+     * @param worldName The name of the world
+     * @return {@code true} if the name was reserved, or {@code false} if a world with that name already exists
+     * @see #release(String)
+     */
+    boolean reserve(String worldName) {
+        return !isNameTaken(worldName) && reservedWorldNames.add(getKey(worldName));
+    }
+
+    /**
+     * Reserves the name of an existing world whose files are being rewritten on another thread, so that the name cannot
+     * be given to a new world if the existing one is removed in the meantime.
+     *
+     * @param worldName The name of the world
+     * @return {@code true} if the name was reserved, or {@code false} if it is already reserved
+     */
+    boolean reserveExisting(String worldName) {
+        return reservedWorldNames.add(getKey(worldName));
+    }
+
+    /**
+     * Releases a name which has been {@link #reserve(String) reserved}.
+     *
+     * @param worldName The name of the world
+     */
+    void release(String worldName) {
+        reservedWorldNames.remove(getKey(worldName));
     }
 
     /**
@@ -75,10 +204,10 @@ public class WorldManager {
      * @return The world object if one was found, {@code null} otherwise
      */
     public BuildWorld getBuildWorld(String worldName) {
-        return this.buildWorlds.stream()
-                .filter(buildWorld -> buildWorld.getName().equalsIgnoreCase(worldName))
-                .findFirst()
-                .orElse(null);
+        if (worldName == null) {
+            return null;
+        }
+        return this.buildWorlds.get(getKey(worldName));
     }
 
     /**
@@ -88,18 +217,291 @@ public class WorldManager {
      * @return The world object if one was found, {@code null} otherwise
      */
     public BuildWorld getBuildWorld(World world) {
-        return getBuildWorld(world.getName());
+        return this.buildWorldsByUid.get(world.getUID());
+    }
+
+    /**
+     * Gets an unmodifiable view of all {@link BuildWorld}s in the order they were registered.
+     *
+     * @return A collection of all worlds
+     */
+    public Collection<BuildWorld> getBuildWorlds() {
+        return buildWorldsView;
+    }
+
+    /**
+     * Gets all registered worlds whose {@link World} is currently loaded.
+     *
+     * @return An unmodifiable view of the loaded worlds
+     */
+    public Collection<BuildWorld> getLoadedBuildWorlds() {
+        return Collections.unmodifiableCollection(buildWorldsByUid.values());
+    }
+
+    public WorldUnloadPolicy getWorldUnloadPolicy() {
+        return worldUnloadPolicy;
+    }
+
+    public LevelMetadataIndex getLevelMetadataIndex() {
+        return levelMetadataIndex;
+    }
+
+    public WorldPool getWorldPool() {
+        return worldPool;
+    }
+
+    public WorldArchiver getWorldArchiver() {
+        return worldArchiver;
+    }
+
+    public BackupManager getBackupManager() {
+        return backupManager;
+    }
+
+    public RegionCompactor getRegionCompactor() {
+        return regionCompactor;
+    }
+
+    /**
+     * Registers a {@link BuildWorld}, making it available to lookups by name.
+     *
+     * @param buildWorld The world to register
+     * @return {@code true} if the world was registered, {@code false} if a world with the same name already exists
+     */
+    public boolean addBuildWorld(BuildWorld buildWorld) {
+        if (this.buildWorlds.putIfAbsent(getKey(buildWorld.getName()), buildWorld) != null) {
+            return false;
+        }
+
+        World bukkitWorld = Bukkit.getWorld(buildWorld.getName());
+        if (bukkitWorld != null) {
+            linkBukkitWorld(bukkitWorld);
+        }
+
+        indexCreator(buildWorld, buildWorld.getCreatorId());
+        this.buildWorldsByStatus.get(buildWorld.getStatus()).add(buildWorld);
+        this.buildWorldsByVisibility.get(buildWorld.isPrivate()).add(buildWorld);
+        return true;
+    }
+
+    /**
+     * Unregisters a {@link BuildWorld}.
+     *
+     * @param buildWorld The world to unregister
+     * @return {@code true} if the world was registered before, otherwise {@code false}
+     */
+    public boolean removeBuildWorld(BuildWorld buildWorld) {
+        if (!this.buildWorlds.remove(getKey(buildWorld.getName()), buildWorld)) {
+            return false;
+        }
+
+        this.buildWorldsByUid.values().remove(buildWorld);
+        this.worldUnloadScheduler.cancel(buildWorld);
+        buildWorld.setWorld(null);
+
+        unindexCreator(buildWorld, buildWorld.getCreatorId());
+        this.buildWorldsByStatus.get(buildWorld.getStatus()).remove(buildWorld);
+        this.buildWorldsByVisibility.get(buildWorld.isPrivate()).remove(buildWorld);
+        return true;
+    }
+
+    private void indexCreator(BuildWorld buildWorld, @Nullable UUID creatorId) {
+        if (creatorId != null) {
+            this.buildWorldsByCreator.computeIfAbsent(creatorId, uuid -> new LinkedHashSet<>()).add(buildWorld);
+        }
+    }
+
+    private void unindexCreator(BuildWorld buildWorld, @Nullable UUID creatorId) {
+        if (creatorId == null) {
+            return;
+        }
+
+        Set<BuildWorld> createdWorlds = this.buildWorldsByCreator.get(creatorId);
+        if (createdWorlds != null && createdWorlds.remove(buildWorld) && createdWorlds.isEmpty()) {
+            this.buildWorldsByCreator.remove(creatorId);
+        }
+    }
+
+    /**
+     * Moves a {@link BuildWorld} in the creator index after its creator has changed.
+     *
+     * @param buildWorld   The world whose creator changed
+     * @param oldCreatorId The unique-id of the previous creator
+     * @see BuildWorld#setCreatorId(UUID)
+     */
+    void updateCreatorIndex(BuildWorld buildWorld, @Nullable UUID oldCreatorId) {
+        if (!isRegistered(buildWorld)) {
+            return;
+        }
+
+        unindexCreator(buildWorld, oldCreatorId);
+        indexCreator(buildWorld, buildWorld.getCreatorId());
+    }
+
+    /**
+     * Moves a {@link BuildWorld} in the status index after its status has changed.
+     *
+     * @param buildWorld The world whose status changed
+     * @param oldStatus  The previous status
+     * @see BuildWorld#setStatus(WorldStatus)
+     */
+    void updateStatusIndex(BuildWorld buildWorld, WorldStatus oldStatus) {
+        if (!isRegistered(buildWorld)) {
+            return;
+        }
+
+        this.buildWorldsByStatus.get(oldStatus).remove(buildWorld);
+        this.buildWorldsByStatus.get(buildWorld.getStatus()).add(buildWorld);
+    }
+
+    /**
+     * Moves a {@link BuildWorld} in the visibility index after its visibility has changed.
+     *
+     * @param buildWorld The world whose visibility changed
+     * @see BuildWorld#setPrivate(boolean)
+     */
+    void updateVisibilityIndex(BuildWorld buildWorld) {
+        if (!isRegistered(buildWorld)) {
+            return;
+        }
+
+        boolean privateWorld = buildWorld.isPrivate();
+        this.buildWorldsByVisibility.get(!privateWorld).remove(buildWorld);
+        this.buildWorldsByVisibility.get(privateWorld).add(buildWorld);
+    }
+
+    /**
+     * Gets all {@link BuildWorld}s with the given {@link WorldStatus}.
+     *
+     * @param worldStatus The status of the worlds
+     * @return An unmodifiable view of all worlds with the given status
+     */
+    public Collection<BuildWorld> getBuildWorlds(WorldStatus worldStatus) {
+        return Collections.unmodifiableSet(this.buildWorldsByStatus.get(worldStatus));
+    }
+
+    /**
+     * Gets all {@link BuildWorld}s with the given {@link WorldStatus} by querying the {@link WorldStorage}. Modified
+     * worlds are saved first, so that the stored statuses are up to date. Meant for periodic tasks, as the navigator's
+     * lookups use {@link #getBuildWorlds(WorldStatus)} instead, which never waits for the storage.
+     *
+     * @param worldStatus The status of the worlds
+     * @return A list of all registered worlds with the given status
+     */
+    public List<BuildWorld> getStoredBuildWorlds(WorldStatus worldStatus) {
+        save();
+        List<BuildWorld> buildWorlds = new ArrayList<>();
+        for (String worldName : worldStorage.getWorldNames(worldStatus)) {
+            BuildWorld buildWorld = getBuildWorld(worldName);
+            if (buildWorld != null && buildWorld.getStatus() == worldStatus) {
+                buildWorlds.add(buildWorld);
+            }
+        }
+        return buildWorlds;
+    }
+
+    /**
+     * Gets all {@link BuildWorld}s with the given {@link Visibility}.
+     *
+     * @param visibility The visibility of the worlds
+     * @return An unmodifiable view of all worlds with the given visibility
+     */
+    public Collection<BuildWorld> getBuildWorlds(Visibility visibility) {
+        switch (visibility) {
+            case PRIVATE:
+                return Collections.unmodifiableSet(this.buildWorldsByVisibility.get(true));
+            case PUBLIC:
+                return Collections.unmodifiableSet(this.buildWorldsByVisibility.get(false));
+            default:
+                return getBuildWorlds();
+        }
     }
 
     /**
-     * Gets a list of all {@link BuildWorld}s.
+     * Gets all {@link BuildWorld}s which have the given {@link Visibility} and one of the given {@link WorldStatus}es.
+     * Only the smaller of the matching indexes is iterated.
      *
-     * @return A list of all worlds
+     * @param visibility  The visibility of the worlds
+     * @param worldStatus The statuses a world can have
+     * @return A list of all matching worlds
      */
-    public List<BuildWorld> getBuildWorlds() {
+    public List<BuildWorld> getBuildWorlds(Visibility visibility, Set<WorldStatus> worldStatus) {
+        Collection<BuildWorld> byVisibility = getBuildWorlds(visibility);
+        int byStatusSize = worldStatus.stream().mapToInt(status -> buildWorldsByStatus.get(status).size()).sum();
+
+        List<BuildWorld> buildWorlds = new ArrayList<>();
+        if (byStatusSize <= byVisibility.size()) {
+            for (WorldStatus status : worldStatus) {
+                for (BuildWorld buildWorld : this.buildWorldsByStatus.get(status)) {
+                    if (isCorrectVisibility(buildWorld, visibility)) {
+                        buildWorlds.add(buildWorld);
+                    }
+                }
+            }
+        } else {
+            for (BuildWorld buildWorld : byVisibility) {
+                if (worldStatus.contains(buildWorld.getStatus())) {
+                    buildWorlds.add(buildWorld);
+                }
+            }
+        }
         return buildWorlds;
     }
 
+    /**
+     * Gets whether the given {@link BuildWorld} is currently registered.
+     *
+     * @param buildWorld The world to check
+     * @return {@code true} if the world is registered, otherwise {@code false}
+     */
+    public boolean isRegistered(BuildWorld buildWorld) {
+        return getBuildWorld(buildWorld.getName()) == buildWorld;
+    }
+
+    /**
+     * Links a loaded {@link World} to the registered {@link BuildWorld} of the same name, if there is one.
+     * Afterwards, {@link #getBuildWorld(World)} resolves the world without a name lookup.
+     *
+     * @param bukkitWorld The world which has been loaded
+     */
+    public void linkBukkitWorld(World bukkitWorld) {
+        BuildWorld buildWorld = getBuildWorld(bukkitWorld.getName());
+        if (buildWorld == null) {
+            return;
+        }
+
+        buildWorld.setWorld(bukkitWorld);
+        this.buildWorldsByUid.put(bukkitWorld.getUID(), buildWorld);
+    }
+
+    /**
+     * Removes the link between an unloaded {@link World} and its {@link BuildWorld}.
+     *
+     * @param bukkitWorld The world which has been unloaded
+     */
+    public void unlinkBukkitWorld(World bukkitWorld) {
+        BuildWorld buildWorld = this.buildWorldsByUid.remove(bukkitWorld.getUID());
+        if (buildWorld == null) {
+            buildWorld = getBuildWorld(bukkitWorld.getName());
+        }
+
+        if (buildWorld != null) {
+            buildWorld.setWorld(null);
+        }
+    }
+
+    /**
+     * Changes the name of a registered {@link BuildWorld} and moves it to its new key.
+     *
+     * @param buildWorld The world to rename
+     * @param newName    The new name of the world
+     */
+    private void renameBuildWorld(BuildWorld buildWorld, String newName) {
+        this.buildWorlds.remove(getKey(buildWorld.getName()), buildWorld);
+        buildWorld.setName(newName);
+        this.buildWorlds.put(getKey(newName), buildWorld);
+    }
+
     /**
      * Gets a list of all {@link BuildWorld}s created by the given player.
      *
@@ -107,9 +509,8 @@ public class WorldManager {
      * @return A list of all worlds created by the given player.
      */
     public List<BuildWorld> getBuildWorldsCreatedByPlayer(Player player) {
-        return getBuildWorlds().stream()
-                .filter(buildWorld -> buildWorld.isCreator(player))
-                .collect(Collectors.toList());
+        Set<BuildWorld> createdWorlds = this.buildWorldsByCreator.get(player.getUniqueId());
+        return createdWorlds != null ? new ArrayList<>(createdWorlds) : new ArrayList<>();
     }
 
     /**
@@ -196,7 +597,7 @@ public class WorldManager {
      * @return Whether if a world with the given name already exists
      */
     public boolean worldExists(Player player, String worldName) {
-        boolean worldExists = getBuildWorld(worldName) != null;
+        boolean worldExists = getBuildWorld(worldName) != null || isReserved(worldName);
         File worldFile = new File(Bukkit.getWorldContainer(), worldName);
         if (worldExists || worldFile.exists()) {
             Messages.sendMessage(player, "worlds_world_exists");
@@ -231,7 +632,7 @@ public class WorldManager {
             return;
         }
 
-        if (getBuildWorld(worldName) != null) {
+        if (getBuildWorld(worldName) != null || isReserved(worldName)) {
             Messages.sendMessage(player, "worlds_world_exists");
             return;
         }
@@ -267,7 +668,7 @@ public class WorldManager {
         }
 
         Messages.sendMessage(player, "worlds_import_started", new AbstractMap.SimpleEntry<>("%world%", worldName));
-        buildWorlds.add(buildWorld);
+        addBuildWorld(buildWorld);
         worldCreator.createWorld(player);
         Messages.sendMessage(player, "worlds_import_finished");
 
@@ -298,57 +699,14 @@ public class WorldManager {
 
     /**
      * Import all {@link BuildWorld} from a given list of world names.
+     * The worlds are validated on other threads first and then imported without exceeding the configured tick budget.
      *
      * @param player    The player who is creating the world
      * @param worldList The list of world to be imported
+     * @see WorldImportTask
      */
     public void importWorlds(Player player, String[] worldList) {
-        int worlds = worldList.length;
-        int delay = configValues.getImportDelay();
-
-        Messages.sendMessage(player, "worlds_importall_started", new AbstractMap.SimpleEntry<>("%amount%", String.valueOf(worlds)));
-        Messages.sendMessage(player, "worlds_importall_delay", new AbstractMap.SimpleEntry<>("%delay%", String.valueOf(delay)));
-
-        AtomicInteger worldsImported = new AtomicInteger(0);
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                int i = worldsImported.getAndIncrement();
-
-                String worldName = worldList[i];
-                for (String charString : worldName.split("")) {
-                    if (charString.matches("[^A-Za-z\\d/_-]")) {
-                        Messages.sendMessage(player, "worlds_importall_invalid_character",
-                                new AbstractMap.SimpleEntry<>("%world%", worldName),
-                                new AbstractMap.SimpleEntry<>("%char%", charString)
-                        );
-                        return;
-                    }
-                }
-
-                if (getBuildWorld(worldName) != null) {
-                    Messages.sendMessage(player, "worlds_importall_world_already_imported", new AbstractMap.SimpleEntry<>("%world%", worldName));
-                    return;
-                }
-
-                long creation = FileUtils.getDirectoryCreation(new File(Bukkit.getWorldContainer(), worldName));
-                BuildWorld buildWorld = new BuildWorld(worldName, "-", null, WorldType.IMPORTED, creation, false, null);
-                BuildWorldCreator worldCreator = new BuildWorldCreator(plugin, buildWorld);
-                if (worldCreator.parseDataVersion() > plugin.getServerVersion().getDataVersion()) {
-                    Messages.sendMessage(player, "worlds_importall_newer_version", new AbstractMap.SimpleEntry<>("%world%", worldName));
-                    return;
-                }
-
-                buildWorlds.add(buildWorld);
-                worldCreator.setType(WorldType.VOID).generateBukkitWorld();
-                Messages.sendMessage(player, "worlds_importall_world_imported", new AbstractMap.SimpleEntry<>("%world%", worldName));
-
-                if (worldsImported.get() >= worlds) {
-                    this.cancel();
-                    Messages.sendMessage(player, "worlds_importall_finished");
-                }
-            }
-        }.runTaskTimer(plugin, 0, 20L * delay);
+        new WorldImportTask(plugin, this, player, worldList).start();
     }
 
     /**
@@ -359,12 +717,26 @@ public class WorldManager {
      * @param buildWorld The world to be deleted
      */
     public void deleteWorld(Player player, BuildWorld buildWorld) {
-        if (!buildWorlds.contains(buildWorld)) {
+        if (!isRegistered(buildWorld)) {
             Messages.sendMessage(player, "worlds_delete_unknown_world");
             return;
         }
 
         String worldName = buildWorld.getName();
+        if (isInUse(worldName)) {
+            Messages.sendMessage(player, "worlds_delete_in_use");
+            return;
+        }
+
+        if (worldArchiver.isArchived(worldName)) {
+            Messages.sendMessage(player, "worlds_delete_started", new AbstractMap.SimpleEntry<>("%world%", worldName));
+            unimportWorld(buildWorld, false);
+            worldArchiver.delete(worldName).whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () ->
+                    Messages.sendMessage(player, throwable != null ? "worlds_delete_error" : "worlds_delete_finished")
+            ));
+            return;
+        }
+
         File deleteFolder = new File(Bukkit.getWorldContainer(), worldName);
         if (!deleteFolder.exists()) {
             Messages.sendMessage(player, "worlds_delete_unknown_directory");
@@ -374,12 +746,67 @@ public class WorldManager {
         Messages.sendMessage(player, "worlds_delete_started", new AbstractMap.SimpleEntry<>("%world%", worldName));
         removePlayersFromWorld(worldName, Messages.getString("worlds_delete_players_world"));
         Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            // A scheduled backup may have started while the players were removed
+            if (isInUse(worldName)) {
+                Messages.sendMessage(player, "worlds_delete_in_use");
+                return;
+            }
+
             unimportWorld(buildWorld, false);
-            FileUtils.deleteDirectory(deleteFolder);
-            Messages.sendMessage(player, "worlds_delete_finished");
+            levelMetadataIndex.invalidate(worldName);
+
+            Path folder = toTombstone(deleteFolder.toPath());
+            plugin.getFileOperations().deleteDirectory(folder, (deleted, total) -> Bukkit.getScheduler().runTask(plugin, () ->
+                    Messages.sendMessage(player, "worlds_delete_progress",
+                            new AbstractMap.SimpleEntry<>("%deleted%", deleted),
+                            new AbstractMap.SimpleEntry<>("%total%", total)
+                    )
+            )).whenComplete((deleted, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                if (throwable != null) {
+                    plugin.getLogger().log(Level.SEVERE, "Unable to delete world " + worldName, throwable);
+                    Messages.sendMessage(player, "worlds_delete_error");
+                } else {
+                    Messages.sendMessage(player, "worlds_delete_finished");
+                }
+            }));
         }, 20L);
     }
 
+    /**
+     * Renames a world folder which is about to be deleted, so that its name can be used again right away.
+     * If the folder cannot be renamed, it is deleted under its original name.
+     *
+     * @param folder The folder to rename
+     * @return The renamed folder
+     */
+    private Path toTombstone(Path folder) {
+        Path tombstone = folder.resolveSibling(TOMBSTONE_PREFIX + folder.getFileName() + "-" + System.currentTimeMillis());
+        try {
+            return Files.move(folder, tombstone, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Unable to rename " + folder.getFileName() + " before deleting it: " + e.getMessage());
+            return folder;
+        }
+    }
+
+    /**
+     * Deletes the folders of worlds whose deletion did not finish before the server was stopped.
+     */
+    private void deleteTombstones() {
+        File[] tombstones = Bukkit.getWorldContainer().listFiles(file -> file.isDirectory() && file.getName().startsWith(TOMBSTONE_PREFIX));
+        if (tombstones == null) {
+            return;
+        }
+
+        for (File tombstone : tombstones) {
+            plugin.getFileOperations().deleteDirectory(tombstone.toPath(), null).whenComplete((deleted, throwable) -> {
+                if (throwable != null) {
+                    plugin.getLogger().log(Level.WARNING, "Unable to delete " + tombstone.getName(), throwable);
+                }
+            });
+        }
+    }
+
     /**
      * Unimport an existing {@link BuildWorld}.
      * In comparison to {@link #deleteWorld(Player, BuildWorld)}, unimporting a world does not delete the world's directory.
@@ -389,12 +816,9 @@ public class WorldManager {
      */
     public void unimportWorld(BuildWorld buildWorld, boolean save) {
         buildWorld.forceUnload(save);
-        this.buildWorlds.remove(buildWorld);
+        removeBuildWorld(buildWorld);
         removePlayersFromWorld(buildWorld.getName(), Messages.getString("worlds_unimport_players_world"));
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            this.worldConfig.getFile().set("worlds." + buildWorld.getName(), null);
-            this.worldConfig.saveFile();
-        });
+        this.worldStorage.deleteWorld(buildWorld.getName());
     }
 
     /**
@@ -454,6 +878,11 @@ public class WorldManager {
             return;
         }
 
+        if (isInUse(oldName)) {
+            Messages.sendMessage(player, "worlds_rename_in_use");
+            return;
+        }
+
         for (String charString : newName.split("")) {
             if (charString.matches("[^A-Za-z\\d/_-]")) {
                 Messages.sendMessage(player, "worlds_world_creation_invalid_characters");
@@ -468,55 +897,147 @@ public class WorldManager {
             return;
         }
 
-        if (Bukkit.getWorld(oldName) == null && !buildWorld.isLoaded()) {
-            buildWorld.load();
+        if (isNameTaken(parsedNewName)) {
+            Messages.sendMessage(player, "worlds_world_exists");
+            return;
         }
 
         World oldWorld = Bukkit.getWorld(oldName);
-        if (oldWorld == null) {
-            Messages.sendMessage(player, "worlds_rename_unknown_world");
+        if (oldWorld != null) {
+            renameLoadedWorld(player, buildWorld, parsedNewName, oldWorld);
             return;
         }
 
-        List<Player> removedPlayers = removePlayersFromWorld(oldName, Messages.getString("worlds_rename_players_world"));
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            oldWorld.save();
-            Bukkit.getServer().unloadWorld(oldWorld, true);
+        // Archived worlds are restored by the load queue on another thread
+        queueLoad(buildWorld, player).whenComplete((world, throwable) -> {
+            if (throwable != null) {
+                Messages.sendMessage(player, "worlds_rename_unknown_world");
+                return;
+            }
 
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                worldConfig.getFile().set("worlds." + parsedNewName, worldConfig.getFile().getConfigurationSection("worlds." + buildWorld.getName()));
-                worldConfig.getFile().set("worlds." + oldName, null);
-            });
+            // Another world may have taken the name while this one was loaded
+            if (isNameTaken(parsedNewName)) {
+                Messages.sendMessage(player, "worlds_world_exists");
+                return;
+            }
+            renameLoadedWorld(player, buildWorld, parsedNewName, world);
+        });
+    }
 
-            File oldWorldFile = new File(Bukkit.getWorldContainer(), oldName);
-            File newWorldFile = new File(Bukkit.getWorldContainer(), parsedNewName);
-            FileUtils.copy(oldWorldFile, newWorldFile);
-            FileUtils.deleteDirectory(oldWorldFile);
+    /**
+     * Gets whether the files of a world are currently being read or replaced by a backup, restore or compaction, in
+     * which case the world must neither be renamed nor deleted.
+     */
+    private boolean isInUse(String worldName) {
+        return backupManager.isRunning(worldName) || regionCompactor.isRunning(worldName);
+    }
 
-            buildWorld.setName(parsedNewName);
-            World newWorld = new BuildWorldCreator(plugin, buildWorld).generateBukkitWorld(false);
-            Location spawnLocation = oldWorld.getSpawnLocation();
-            spawnLocation.setWorld(newWorld);
+    private boolean isNameTaken(String worldName) {
+        return getBuildWorld(worldName) != null || isReserved(worldName)
+                || new File(Bukkit.getWorldContainer(), worldName).exists() || worldArchiver.isArchived(worldName);
+    }
 
-            removedPlayers.stream()
-                    .filter(Objects::nonNull)
-                    .forEach(pl -> PaperLib.teleportAsync(pl, spawnLocation.add(0.5, 0, 0.5)));
-            removedPlayers.clear();
+    /**
+     * Moves the folder of a loaded {@link BuildWorld} once all players have been removed from it.
+     */
+    private void renameLoadedWorld(Player player, BuildWorld buildWorld, String parsedNewName, World oldWorld) {
+        String oldName = buildWorld.getName();
+        List<Player> removedPlayers = removePlayersFromWorld(oldName, Messages.getString("worlds_rename_players_world"));
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            // A scheduled backup may have started while the players were removed
+            if (isInUse(oldName)) {
+                Messages.sendMessage(player, "worlds_rename_in_use");
+                return;
+            }
 
+            buildWorld.cancelStagedUnload();
+            oldWorld.save();
+            Location spawnLocation = oldWorld.getSpawnLocation();
             SpawnManager spawnManager = plugin.getSpawnManager();
-            if (spawnManager.spawnExists() && Objects.equals(spawnManager.getSpawnWorld(), oldWorld)) {
-                Location oldSpawn = spawnManager.getSpawn();
-                Location newSpawn = new Location(spawnLocation.getWorld(), oldSpawn.getX(), oldSpawn.getY(), oldSpawn.getZ(), oldSpawn.getYaw(), oldSpawn.getPitch());
-                spawnManager.set(newSpawn, newSpawn.getWorld().getName());
+            boolean spawnWorld = spawnManager.spawnExists() && Objects.equals(spawnManager.getSpawnWorld(), oldWorld);
+            if (!Bukkit.getServer().unloadWorld(oldWorld, true)) {
+                plugin.getLogger().severe("Unable to unload world " + oldName + " to rename it");
+                Messages.sendMessage(player, "worlds_rename_error");
+                return;
+            }
+            buildWorld.markUnloaded();
+
+            Path source = new File(Bukkit.getWorldContainer(), oldName).toPath();
+            Path target = new File(Bukkit.getWorldContainer(), parsedNewName).toPath();
+            try {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // The folders are on different file systems, so the world has to be copied
+                reservedWorldNames.add(getKey(oldName));
+                reservedWorldNames.add(getKey(parsedNewName));
+                plugin.getFileOperations().copyDirectory(source, target).whenComplete((copied, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (throwable != null) {
+                        plugin.getLogger().log(Level.SEVERE, "Unable to copy world " + oldName + " to " + parsedNewName, throwable);
+                        Messages.sendMessage(player, "worlds_rename_error");
+                        release(oldName);
+                        new BuildWorldCreator(plugin, buildWorld).generateBukkitWorld(false);
+                        deleteReservedFolder(target, parsedNewName);
+                        return;
+                    }
+
+                    release(parsedNewName);
+                    finishRename(player, buildWorld, oldName, parsedNewName, spawnLocation, spawnWorld, removedPlayers);
+                    // The world has already been renamed, so a failure only leaves the old folder behind
+                    deleteReservedFolder(source, oldName);
+                }));
+                return;
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Unable to move world " + oldName + " to " + parsedNewName, e);
+                Messages.sendMessage(player, "worlds_rename_error");
+                new BuildWorldCreator(plugin, buildWorld).generateBukkitWorld(false);
+                return;
             }
 
-            Messages.sendMessage(player, "worlds_rename_set",
-                    new AbstractMap.SimpleEntry<>("%oldName%", oldName),
-                    new AbstractMap.SimpleEntry<>("%newName%", parsedNewName)
-            );
+            finishRename(player, buildWorld, oldName, parsedNewName, spawnLocation, spawnWorld, removedPlayers);
         }, 20L);
     }
 
+    /**
+     * Deletes a world folder which has been left behind by a rename or a failed creation and releases its name once it
+     * is gone.
+     */
+    void deleteReservedFolder(Path folder, String worldName) {
+        plugin.getFileOperations().deleteDirectory(folder, null).whenComplete((deleted, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            release(worldName);
+            if (throwable != null) {
+                plugin.getLogger().log(Level.WARNING, "Unable to delete " + folder.getFileName(), throwable);
+            }
+        }));
+    }
+
+    /**
+     * Registers a {@link BuildWorld} under its new name once its folder has been moved and loads it again.
+     */
+    private void finishRename(Player player, BuildWorld buildWorld, String oldName, String newName, Location spawnLocation, boolean spawnWorld, List<Player> removedPlayers) {
+        levelMetadataIndex.invalidate(oldName);
+        renameBuildWorld(buildWorld, newName);
+        worldStorage.renameWorld(oldName, buildWorld);
+
+        World newWorld = new BuildWorldCreator(plugin, buildWorld).generateBukkitWorld(false);
+        spawnLocation.setWorld(newWorld);
+
+        removedPlayers.stream()
+                .filter(Objects::nonNull)
+                .forEach(pl -> PaperLib.teleportAsync(pl, spawnLocation.clone().add(0.5, 0, 0.5)));
+
+        SpawnManager spawnManager = plugin.getSpawnManager();
+        if (spawnWorld) {
+            Location oldSpawn = spawnManager.getSpawn();
+            Location newSpawn = new Location(newWorld, oldSpawn.getX(), oldSpawn.getY(), oldSpawn.getZ(), oldSpawn.getYaw(), oldSpawn.getPitch());
+            spawnManager.set(newSpawn, newName);
+        }
+
+        Messages.sendMessage(player, "worlds_rename_set",
+                new AbstractMap.SimpleEntry<>("%oldName%", oldName),
+                new AbstractMap.SimpleEntry<>("%newName%", newName)
+        );
+    }
+
     /**
      * Teleport a player to a {@link BuildWorld}.
      *
@@ -524,10 +1045,15 @@ public class WorldManager {
      * @param buildWorld The build world object
      */
     public void teleport(Player player, BuildWorld buildWorld) {
-        boolean hadToLoad = false;
         if (configValues.isUnloadWorlds() && !buildWorld.isLoaded()) {
-            buildWorld.load(player);
-            hadToLoad = true;
+            queueLoad(buildWorld, player).whenComplete((world, throwable) -> {
+                if (throwable != null) {
+                    Messages.sendMessage(player, "worlds_tp_unknown_world");
+                } else if (player.isOnline()) {
+                    teleport(player, buildWorld, world);
+                }
+            });
+            return;
         }
 
         World bukkitWorld = Bukkit.getServer().getWorld(buildWorld.getName());
@@ -536,37 +1062,139 @@ public class WorldManager {
             return;
         }
 
-        Location location = bukkitWorld.getSpawnLocation().add(0.5, 0, 0.5);
+        teleport(player, buildWorld, bukkitWorld);
+    }
+
+    private void teleport(Player player, BuildWorld buildWorld, World bukkitWorld) {
+        // The player only enters the world once the teleport has finished, which the staged unload must not outrun
+        if (buildWorld.isUnloading()) {
+            buildWorld.resetUnloadTask();
+        }
+
+        Location spawnLocation;
         if (buildWorld.getCustomSpawn() == null) {
-            switch (buildWorld.getType()) {
-                case NETHER:
-                case END:
-                    Location blockLocation = null;
-                    for (int y = 0; y < bukkitWorld.getMaxHeight(); y++) {
-                        Block block = bukkitWorld.getBlockAt(location.getBlockX(), y, location.getBlockZ());
-                        if (isSafeLocation(block.getLocation())) {
-                            blockLocation = block.getLocation();
-                            break;
-                        }
-                    }
-                    if (blockLocation != null) {
-                        location = new Location(bukkitWorld, blockLocation.getBlockX() + 0.5, blockLocation.getBlockY() + 1, blockLocation.getBlockZ() + 0.5);
-                    }
-                    break;
-                default:
-                    break;
-            }
+            spawnLocation = bukkitWorld.getSpawnLocation().add(0.5, 0, 0.5);
         } else {
             String[] spawnString = buildWorld.getCustomSpawn().split(";");
-            location = new Location(bukkitWorld, Double.parseDouble(spawnString[0]), Double.parseDouble(spawnString[1]), Double.parseDouble(spawnString[2]), Float.parseFloat(spawnString[3]), Float.parseFloat(spawnString[4]));
+            spawnLocation = new Location(bukkitWorld, Double.parseDouble(spawnString[0]), Double.parseDouble(spawnString[1]), Double.parseDouble(spawnString[2]), Float.parseFloat(spawnString[3]), Float.parseFloat(spawnString[4]));
         }
 
-        Location finalLocation = location;
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            PaperLib.teleportAsync(player, finalLocation);
+        loadChunks(spawnLocation, TELEPORT_CHUNK_RADIUS).whenComplete((result, throwable) -> runOnMainThread(() -> {
+            if (throwable != null) {
+                plugin.getLogger().log(Level.WARNING, "Unable to load the spawn chunks of " + buildWorld.getName(), throwable);
+            }
+
+            if (!player.isOnline()) {
+                return;
+            }
+
+            Location location = buildWorld.getCustomSpawn() == null ? findSafeSpawn(buildWorld, spawnLocation) : spawnLocation;
+            PaperLib.teleportAsync(player, location);
             Titles.clearTitle(player);
             XSound.ENTITY_ENDERMAN_TELEPORT.play(player);
-        }, hadToLoad ? 20L : 0L);
+        }));
+    }
+
+    /**
+     * Queues a {@link BuildWorld} to be loaded. Only a limited amount of worlds is loaded per tick, and a world which
+     * is requested several times is only loaded once. Worlds whose name is {@link #isReserved(String) reserved}, e.g.
+     * because their folder is being moved by a rename or their region files are being compacted, cannot be loaded.
+     *
+     * @param buildWorld The world to load
+     * @param player     The player who is waiting for the world and is shown its position in the queue, if any
+     * @return A future which completes with the loaded world on the main thread
+     */
+    public CompletableFuture<World> queueLoad(BuildWorld buildWorld, @Nullable Player player) {
+        if (isReserved(buildWorld.getName())) {
+            CompletableFuture<World> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("The world " + buildWorld.getName() + " is being renamed or compacted"));
+            return future;
+        }
+        return worldLoadQueue.queue(buildWorld, player);
+    }
+
+    /**
+     * Gets whether a {@link BuildWorld} is waiting to be loaded.
+     *
+     * @param buildWorld The world
+     * @return {@code true} if the world has been queued, otherwise {@code false}
+     */
+    boolean isQueued(BuildWorld buildWorld) {
+        return worldLoadQueue.isQueued(buildWorld);
+    }
+
+    /**
+     * Schedules a loaded {@link BuildWorld} to be unloaded once its {@link BuildWorld#getUnloadDeadline() deadline}
+     * has passed.
+     *
+     * @param buildWorld The world to unload
+     */
+    void scheduleUnload(BuildWorld buildWorld) {
+        worldUnloadScheduler.schedule(buildWorld);
+    }
+
+    /**
+     * Stops a {@link BuildWorld} from being unloaded automatically.
+     *
+     * @param buildWorld The world which should no longer be unloaded
+     */
+    void cancelUnload(BuildWorld buildWorld) {
+        worldUnloadScheduler.cancel(buildWorld);
+    }
+
+    /**
+     * In nether and end worlds, the world's spawn is moved to the lowest safe location in the same column.
+     * The chunk containing the spawn has to be loaded.
+     *
+     * @param buildWorld    The build world
+     * @param spawnLocation The world's spawn
+     * @return The location to teleport to
+     */
+    private Location findSafeSpawn(BuildWorld buildWorld, Location spawnLocation) {
+        switch (buildWorld.getType()) {
+            case NETHER:
+            case END:
+                World bukkitWorld = spawnLocation.getWorld();
+                for (int y = 0; y < bukkitWorld.getMaxHeight(); y++) {
+                    Block block = bukkitWorld.getBlockAt(spawnLocation.getBlockX(), y, spawnLocation.getBlockZ());
+                    if (isSafeLocation(block.getLocation())) {
+                        return new Location(bukkitWorld, block.getX() + 0.5, block.getY() + 1, block.getZ() + 0.5);
+                    }
+                }
+                return spawnLocation;
+            default:
+                return spawnLocation;
+        }
+    }
+
+    /**
+     * Loads the chunks within the given radius around a location without blocking the main thread, if the server
+     * supports it.
+     *
+     * @param location The center of the area to load
+     * @param radius   The radius in chunks
+     * @return A future which completes once all chunks have been loaded
+     */
+    private CompletableFuture<Void> loadChunks(Location location, int radius) {
+        World world = location.getWorld();
+        int centerX = location.getBlockX() >> 4;
+        int centerZ = location.getBlockZ() >> 4;
+
+        List<CompletableFuture<Chunk>> chunks = new ArrayList<>();
+        for (int x = centerX - radius; x <= centerX + radius; x++) {
+            for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                chunks.add(PaperLib.getChunkAtAsync(world, x, z, true));
+            }
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]));
+    }
+
+    private void runOnMainThread(Runnable runnable) {
+        if (Bukkit.isPrimaryThread()) {
+            runnable.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, runnable);
+        }
     }
 
     /**
@@ -644,58 +1272,133 @@ public class WorldManager {
     }
 
     public void save() {
-        buildWorlds.forEach(worldConfig::saveWorld);
+        worldStorage.saveWorlds(getBuildWorlds());
     }
 
     public void load() {
-        FileConfiguration configuration = worldConfig.getFile();
-        if (configuration == null) {
+        deleteTombstones();
+
+        Map<String, ConfigurationSection> worlds = worldStorage.loadWorlds();
+        if (worlds.isEmpty()) {
             return;
         }
 
-        ConfigurationSection configurationSection = configuration.getConfigurationSection("worlds");
-        if (configurationSection == null) {
-            return;
+        worlds.forEach(this::loadWorld);
+        resolveCreatorIds();
+        loadBukkitWorlds();
+    }
+
+    /**
+     * Worlds whose creator has no stored unique-id are loaded without one. The missing unique-ids are then fetched
+     * in bulk on another thread, using the creators and unique-ids which are already stored as a cache, and written
+     * back, so that they only have to be fetched once.
+     */
+    private void resolveCreatorIds() {
+        List<BuildWorld> unresolvedWorlds = new ArrayList<>();
+        Set<String> creators = new HashSet<>();
+        for (BuildWorld buildWorld : getBuildWorlds()) {
+            String creator = buildWorld.getCreator();
+            if (creator == null || creator.equals("-")) {
+                continue;
+            }
+
+            if (buildWorld.getCreatorId() != null) {
+                UUIDFetcher.cache(creator, buildWorld.getCreatorId());
+            } else {
+                unresolvedWorlds.add(buildWorld);
+                creators.add(creator);
+            }
         }
 
-        Set<String> worlds = configurationSection.getKeys(false);
-        if (worlds.isEmpty()) {
+        if (unresolvedWorlds.isEmpty()) {
             return;
         }
 
-        worlds.forEach(this::loadWorld);
-        worldConfig.loadWorlds(this);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            Map<String, UUID> creatorIds = UUIDFetcher.getUUIDs(creators);
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                for (BuildWorld buildWorld : unresolvedWorlds) {
+                    if (buildWorld.getCreatorId() != null || !isRegistered(buildWorld)) {
+                        continue;
+                    }
+
+                    UUID creatorId = creatorIds.get(buildWorld.getCreator().toLowerCase(Locale.ROOT));
+                    if (creatorId != null) {
+                        buildWorld.setCreatorId(creatorId);
+                    }
+                }
+                save();
+            });
+        });
     }
 
-    public void loadWorld(String worldName) {
-        FileConfiguration configuration = worldConfig.getFile();
-        if (configuration == null) {
+    private void loadBukkitWorlds() {
+        Logger logger = plugin.getLogger();
+        if (configValues.isUnloadWorlds()) {
+            logger.info("*** \"Unload worlds\" has been enabled in the config. Therefore worlds will not be pre-loaded ***");
             return;
         }
 
-        String creator = configuration.isString("worlds." + worldName + ".creator") ? configuration.getString("worlds." + worldName + ".creator") : "-";
-        UUID creatorId = parseCreatorId(configuration, worldName, creator);
-        WorldType worldType = configuration.isString("worlds." + worldName + ".type") ? WorldType.valueOf(configuration.getString("worlds." + worldName + ".type")) : WorldType.UNKNOWN;
-        boolean privateWorld = configuration.isBoolean("worlds." + worldName + ".private") && configuration.getBoolean("worlds." + worldName + ".private");
-        XMaterial material = parseMaterial(configuration, worldName);
-        WorldStatus worldStatus = WorldStatus.valueOf(configuration.getString("worlds." + worldName + ".status"));
-        String project = configuration.getString("worlds." + worldName + ".project");
-        String permission = configuration.getString("worlds." + worldName + ".permission");
-        long date = configuration.isLong("worlds." + worldName + ".date") ? configuration.getLong("worlds." + worldName + ".date") : -1;
-        boolean physics = configuration.getBoolean("worlds." + worldName + ".physics");
-        boolean explosions = !configuration.isBoolean("worlds." + worldName + ".explosions") || configuration.getBoolean("worlds." + worldName + ".explosions");
-        boolean mobAI = !configuration.isBoolean("worlds." + worldName + ".mobai") || configuration.getBoolean("worlds." + worldName + ".mobai");
-        String customSpawn = configuration.getString("worlds." + worldName + ".spawn");
-        boolean blockBreaking = !configuration.isBoolean("worlds." + worldName + ".block-breaking") || configuration.getBoolean("worlds." + worldName + ".block-breaking");
-        boolean blockPlacement = !configuration.isBoolean("worlds." + worldName + ".block-placement") || configuration.getBoolean("worlds." + worldName + ".block-placement");
-        boolean blockInteractions = !configuration.isBoolean("worlds." + worldName + ".block-interactions") || configuration.getBoolean("worlds." + worldName + ".block-interactions");
-        boolean buildersEnabled = configuration.isBoolean("worlds." + worldName + ".builders-enabled") && configuration.getBoolean("worlds." + worldName + ".builders-enabled");
-        Difficulty difficulty = Difficulty.valueOf(configuration.getString("worlds." + worldName + ".difficulty", "PEACEFUL").toUpperCase());
-        List<Builder> builders = parseBuilders(configuration, worldName);
-        String generatorName = configuration.getString("worlds." + worldName + ".chunk-generator");
+        logger.info("*** All worlds will be loaded now ***");
+        List<BuildWorld> failedWorlds = new ArrayList<>();
+        for (BuildWorld buildWorld : getBuildWorlds()) {
+            String worldName = buildWorld.getName();
+            if (worldArchiver.isArchived(worldName)) {
+                try {
+                    worldArchiver.restore(worldName).join();
+                } catch (CompletionException e) {
+                    logger.info("✗ Unable to restore archived world: " + worldName);
+                    continue;
+                }
+            }
+
+            World world = new BuildWorldCreator(plugin, buildWorld).generateBukkitWorld();
+            if (world == null) {
+                logger.info("✗ Unable to load world: " + worldName);
+                failedWorlds.add(buildWorld);
+                continue;
+            }
+
+            if (buildWorld.getMaterial() == XMaterial.PLAYER_HEAD) {
+                plugin.getSkullCache().cacheSkull(worldName);
+            }
+
+            logger.info("✔ World loaded: " + worldName);
+        }
+        failedWorlds.forEach(this::removeBuildWorld);
+        logger.info("*** All worlds have been loaded ***");
+    }
+
+    /**
+     * Registers a {@link BuildWorld} from its stored data.
+     *
+     * @param worldName    The name of the world
+     * @param worldSection The data of the world, as produced by {@link BuildWorld#serialize()}
+     */
+    public void loadWorld(String worldName, ConfigurationSection worldSection) {
+        String creator = worldSection.isString("creator") ? worldSection.getString("creator") : "-";
+        UUID creatorId = parseCreatorId(worldSection);
+        WorldType worldType = worldSection.isString("type") ? WorldType.valueOf(worldSection.getString("type")) : WorldType.UNKNOWN;
+        boolean privateWorld = worldSection.isBoolean("private") && worldSection.getBoolean("private");
+        XMaterial material = parseMaterial(worldSection, worldName);
+        WorldStatus worldStatus = WorldStatus.valueOf(worldSection.getString("status"));
+        String project = worldSection.getString("project");
+        String permission = worldSection.getString("permission");
+        long date = worldSection.isLong("date") ? worldSection.getLong("date") : -1;
+        boolean physics = worldSection.getBoolean("physics");
+        boolean explosions = !worldSection.isBoolean("explosions") || worldSection.getBoolean("explosions");
+        boolean mobAI = !worldSection.isBoolean("mobai") || worldSection.getBoolean("mobai");
+        String customSpawn = worldSection.getString("spawn");
+        boolean blockBreaking = !worldSection.isBoolean("block-breaking") || worldSection.getBoolean("block-breaking");
+        boolean blockPlacement = !worldSection.isBoolean("block-placement") || worldSection.getBoolean("block-placement");
+        boolean blockInteractions = !worldSection.isBoolean("block-interactions") || worldSection.getBoolean("block-interactions");
+        boolean buildersEnabled = worldSection.isBoolean("builders-enabled") && worldSection.getBoolean("builders-enabled");
+        Difficulty difficulty = Difficulty.valueOf(worldSection.getString("difficulty", "PEACEFUL").toUpperCase());
+        List<Builder> builders = parseBuilders(worldSection);
+        String generatorName = worldSection.getString("chunk-generator");
         CustomGenerator customGenerator = new CustomGenerator(generatorName, parseChunkGenerator(worldName, generatorName));
 
-        this.buildWorlds.add(new BuildWorld(
+        addBuildWorld(new BuildWorld(
                 worldName,
                 creator,
                 creatorId,
@@ -720,8 +1423,8 @@ public class WorldManager {
         ));
     }
 
-    private XMaterial parseMaterial(FileConfiguration configuration, String worldName) {
-        String itemString = configuration.getString("worlds." + worldName + ".item");
+    private XMaterial parseMaterial(ConfigurationSection worldSection, String worldName) {
+        String itemString = worldSection.getString("item");
         if (itemString == null) {
             itemString = XMaterial.BEDROCK.name();
             plugin.getLogger().warning("Unknown material found for \"" + worldName + "\" (" + itemString + ").");
@@ -738,26 +1441,24 @@ public class WorldManager {
         }
     }
 
-    private UUID parseCreatorId(FileConfiguration configuration, String worldName, String creator) {
-        String path = "worlds." + worldName + ".creator-id";
-        String id = configuration.isString(path) ? configuration.getString(path) : null;
-
+    /**
+     * Parses the stored unique-id of a world's creator.
+     * If none has been stored, {@code null} is returned and the unique-id is resolved in {@link #resolveCreatorIds()}.
+     */
+    @Nullable
+    private UUID parseCreatorId(ConfigurationSection worldSection) {
+        String id = worldSection.isString("creator-id") ? worldSection.getString("creator-id") : null;
         if (id == null || id.equalsIgnoreCase("null")) {
-            if (!creator.equals("-")) {
-                return UUIDFetcher.getUUID(creator);
-            } else {
-                return null;
-            }
-        } else {
-            return UUID.fromString(id);
+            return null;
         }
+        return UUID.fromString(id);
     }
 
-    private List<Builder> parseBuilders(FileConfiguration configuration, String worldName) {
+    private List<Builder> parseBuilders(ConfigurationSection worldSection) {
         List<Builder> builders = new ArrayList<>();
 
-        if (configuration.isString("worlds." + worldName + ".builders")) {
-            String buildersString = configuration.getString("worlds." + worldName + ".builders");
+        if (worldSection.isString("builders")) {
+            String buildersString = worldSection.getString("builders");
             if (buildersString != null && !buildersString.isEmpty()) {
                 String[] splitBuilders = buildersString.split(";");
                 for (String builder : splitBuilders) {
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.config.ConfigValues;
+import com.eintosti.buildsystem.world.data.WorldType;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Keeps a number of pre-generated, unloaded worlds for each of the configured {@link WorldType}s, so that creating a
+ * world of such a type only requires the pooled folder to be renamed and loaded.
+ * <p>
+ * Pooled worlds are stored as hidden folders in the world container and are generated one at a time, only while the
+ * server is quiet: no worlds are waiting to be loaded and the server has kept up with its tick rate since the last
+ * check. Must only be used from the main thread.
+ *
+ * @author einTosti
+ */
+public class WorldPool {
+
+    private static final String POOL_PREFIX = ".pool-";
+    private static final long CHECK_INTERVAL = 20L * 30;
+    /**
+     * How much longer than expected the last {@link #CHECK_INTERVAL} ticks may have taken for the server to be
+     * considered quiet.
+     */
+    private static final double MAX_LAG = 1.1;
+
+    private final BuildSystem plugin;
+    private final Logger logger;
+    private final ConfigValues configValues;
+    private final WorldLoadQueue worldLoadQueue;
+    private final Map<WorldType, Deque<String>> pooledWorlds;
+
+    private long lastCheck;
+
+    WorldPool(BuildSystem plugin, WorldLoadQueue worldLoadQueue) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.configValues = plugin.getConfigValues();
+        this.worldLoadQueue = worldLoadQueue;
+        this.pooledWorlds = new EnumMap<>(WorldType.class);
+
+        loadPooledWorlds();
+        this.lastCheck = System.nanoTime();
+        Bukkit.getScheduler().runTaskTimer(plugin, this::replenish, CHECK_INTERVAL, CHECK_INTERVAL);
+    }
+
+    /**
+     * Finds the pooled worlds which have been generated before the server was last stopped.
+     */
+    private void loadPooledWorlds() {
+        File[] folders = Bukkit.getWorldContainer().listFiles(file -> file.isDirectory() && file.getName().startsWith(POOL_PREFIX));
+        if (folders == null) {
+            return;
+        }
+
+        for (File folder : folders) {
+            String[] parts = folder.getName().substring(POOL_PREFIX.length()).split("-", 2);
+            try {
+                WorldType worldType = WorldType.valueOf(parts[0].toUpperCase(Locale.ROOT));
+                pooledWorlds.computeIfAbsent(worldType, type -> new ArrayDeque<>()).add(folder.getName());
+            } catch (IllegalArgumentException ignored) {
+                // Not a pooled world
+            }
+        }
+    }
+
+    /**
+     * Gets the amount of pooled worlds of the given type.
+     *
+     * @param worldType The type of world
+     * @return The amount of worlds which are ready to be claimed
+     */
+    public int getPooledWorlds(WorldType worldType) {
+        Deque<String> worlds = pooledWorlds.get(worldType);
+        return worlds != null ? worlds.size() : 0;
+    }
+
+    /**
+     * Moves a pooled world of the given type to the folder of a new world.
+     *
+     * @param worldType The type of the new world
+     * @param worldName The name of the new world, whose folder must not exist yet
+     * @return {@code true} if a pooled world was used, otherwise {@code false}
+     */
+    boolean claim(WorldType worldType, String worldName) {
+        Deque<String> worlds = pooledWorlds.get(worldType);
+        File worldContainer = Bukkit.getWorldContainer();
+        while (worlds != null && !worlds.isEmpty()) {
+            String pooledWorld = worlds.poll();
+            try {
+                Files.move(new File(worldContainer, pooledWorld).toPath(), new File(worldContainer, worldName).toPath(), StandardCopyOption.ATOMIC_MOVE);
+                return true;
+            } catch (IOException e) {
+                logger.warning("Unable to use pooled world " + pooledWorld + ": " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generates a single pooled world for the first configured type which has less than the configured amount of
+     * pooled worlds, if the server is quiet.
+     */
+    private void replenish() {
+        long now = System.nanoTime();
+        double lag = (now - lastCheck) / (CHECK_INTERVAL * 50_000_000.0);
+        this.lastCheck = now;
+
+        int size = configValues.getWorldPoolSize();
+        if (size <= 0 || lag > MAX_LAG || !worldLoadQueue.isEmpty()) {
+            return;
+        }
+
+        for (WorldType worldType : configValues.getWorldPoolTypes()) {
+            if (getPooledWorlds(worldType) < size) {
+                generate(worldType);
+                // Generating takes a while, so the next check would always consider the server to be lagging
+                this.lastCheck = System.nanoTime();
+                return;
+            }
+        }
+    }
+
+    private void generate(WorldType worldType) {
+        String worldName = POOL_PREFIX + worldType.name().toLowerCase(Locale.ROOT) + "-" + System.currentTimeMillis();
+        World world = new BuildWorldCreator(plugin, worldName).setType(worldType).generateAndPrepareWorld();
+        if (world == null) {
+            logger.warning("Unable to generate pooled world " + worldName);
+            return;
+        }
+
+        if (!Bukkit.unloadWorld(world, true)) {
+            logger.warning("Unable to unload pooled world " + worldName);
+            return;
+        }
+
+        pooledWorlds.computeIfAbsent(worldType, type -> new ArrayDeque<>()).add(worldName);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.config.ConfigValues;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Unloads idle {@link BuildWorld}s before their {@code time-until-unload} has passed when too many worlds are loaded or
+ * the heap is nearly full.
+ * <p>
+ * Worlds are unloaded least-recently-used first, and only if nobody is inside them. The heap is watched through the
+ * collection usage thresholds of the JVM's memory pools, which are only exceeded if the memory is still in use after a
+ * garbage collection.
+ *
+ * @author einTosti
+ */
+public class WorldUnloadPolicy implements NotificationListener {
+
+    /**
+     * Worlds which have been active more recently are never unloaded early, e.g. because a player is about to be
+     * teleported into them.
+     */
+    private static final long MIN_IDLE_MILLIS = 30_000L;
+    private static final long CHECK_INTERVAL = 20L * 30;
+
+    private final BuildSystem plugin;
+    private final Logger logger;
+    private final ConfigValues configValues;
+    private final WorldManager worldManager;
+    private final AtomicBoolean pressureHandlerQueued;
+
+    private BukkitTask pressureTask;
+    private BuildWorld pressureWorld;
+
+    WorldUnloadPolicy(BuildSystem plugin, WorldManager worldManager) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.configValues = plugin.getConfigValues();
+        this.worldManager = worldManager;
+        this.pressureHandlerQueued = new AtomicBoolean(false);
+
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(this, null, null);
+        applyMemoryThreshold();
+        Bukkit.getScheduler().runTaskTimer(plugin, this::enforceLimit, CHECK_INTERVAL, CHECK_INTERVAL);
+    }
+
+    /**
+     * Sets the collection usage threshold of all heap pools which support it according to the config.
+     */
+    public void applyMemoryThreshold() {
+        double threshold = configValues.getUnloadMemoryThreshold();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            // Only the tenured pools support both kinds of thresholds
+            if (pool.getType() != MemoryType.HEAP || !pool.isUsageThresholdSupported() || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+
+            long max = pool.getUsage().getMax();
+            if (max <= 0) {
+                continue;
+            }
+
+            pool.setCollectionUsageThreshold(threshold > 0 ? (long) (max * Math.min(threshold, 1.0)) : 0);
+        }
+    }
+
+    /**
+     * Stops listening for memory notifications.
+     */
+    public void stop() {
+        try {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(this);
+        } catch (ListenerNotFoundException ignored) {
+            // Was never registered
+        }
+    }
+
+    /**
+     * Unloads the least-recently-used idle worlds until no more than the configured maximum amount of worlds is loaded.
+     */
+    public void enforceLimit() {
+        int maxLoadedWorlds = configValues.getMaxLoadedWorlds();
+        if (!configValues.isUnloadWorlds() || maxLoadedWorlds < 0) {
+            return;
+        }
+
+        int loadedWorlds = 0;
+        for (BuildWorld buildWorld : worldManager.getLoadedBuildWorlds()) {
+            if (!buildWorld.isUnloading()) {
+                loadedWorlds++;
+            }
+        }
+
+        int excess = loadedWorlds - maxLoadedWorlds;
+        if (excess <= 0) {
+            return;
+        }
+
+        List<BuildWorld> candidates = getUnloadCandidates();
+        for (int i = 0; i < excess && i < candidates.size(); i++) {
+            candidates.get(i).unload();
+        }
+    }
+
+    /**
+     * Unloads all idle worlds to free memory. The worlds are unloaded one after another, each of them over several
+     * ticks, so that freeing memory does not freeze the server.
+     */
+    private void relieveMemoryPressure() {
+        pressureHandlerQueued.set(false);
+        if (!configValues.isUnloadWorlds() || pressureTask != null) {
+            return;
+        }
+
+        List<BuildWorld> candidates = getUnloadCandidates();
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        logger.warning("Memory is running low. Unloading " + candidates.size() + " idle world(s)");
+        Iterator<BuildWorld> iterator = candidates.iterator();
+        this.pressureTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> unloadNextCandidate(iterator), 0L, 1L);
+    }
+
+    /**
+     * Starts unloading the next candidate once the previous one has been unloaded.
+     */
+    private void unloadNextCandidate(Iterator<BuildWorld> candidates) {
+        if (pressureWorld != null && pressureWorld.isUnloading()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        while (candidates.hasNext()) {
+            BuildWorld buildWorld = candidates.next();
+            // Players may have entered the world since it was chosen
+            if (worldManager.isRegistered(buildWorld) && isUnloadCandidate(buildWorld, now)) {
+                buildWorld.unload();
+                this.pressureWorld = buildWorld;
+                return;
+            }
+        }
+
+        pressureTask.cancel();
+        this.pressureTask = null;
+        this.pressureWorld = null;
+    }
+
+    /**
+     * @return All loaded worlds which can be unloaded, least-recently-used first
+     */
+    private List<BuildWorld> getUnloadCandidates() {
+        long now = System.currentTimeMillis();
+        List<BuildWorld> candidates = new ArrayList<>();
+        for (BuildWorld buildWorld : worldManager.getLoadedBuildWorlds()) {
+            if (isUnloadCandidate(buildWorld, now)) {
+                candidates.add(buildWorld);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(BuildWorld::getLastActivity));
+        return candidates;
+    }
+
+    private boolean isUnloadCandidate(BuildWorld buildWorld, long now) {
+        return now - buildWorld.getLastActivity() >= MIN_IDLE_MILLIS && buildWorld.canUnload();
+    }
+
+    /**
+     * Called by the JVM, on its own thread, when a memory pool's usage has crossed its threshold.
+     */
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+            return;
+        }
+
+        if (pressureHandlerQueued.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTask(plugin, this::relieveMemoryPressure);
+        }
+    }
+}
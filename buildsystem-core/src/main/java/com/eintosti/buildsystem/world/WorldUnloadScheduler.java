@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import com.eintosti.buildsystem.BuildSystem;
+import org.bukkit.Bukkit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Unloads worlds, usually {@link BuildWorld}s, once their {@link BuildWorld#getUnloadDeadline() deadline} has passed.
+ * <p>
+ * All worlds share a single queue ordered by deadline, which is checked once per second. Resetting a world's timer only
+ * updates its last activity. The new deadline is picked up when the world reaches the head of the queue, at which point
+ * it is put back with the later deadline. Must only be used from the main thread.
+ *
+ * @param <T> The type of the worlds
+ * @author einTosti
+ */
+class WorldUnloadScheduler<T> {
+
+    private final ToLongFunction<T> deadlineFunction;
+    private final Consumer<T> unloader;
+    private final PriorityQueue<Deadline<T>> deadlines;
+    private final Map<T, Deadline<T>> scheduledWorlds;
+
+    WorldUnloadScheduler(BuildSystem plugin, ToLongFunction<T> deadlineFunction, Consumer<T> unloader) {
+        this(deadlineFunction, unloader);
+        Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 20L, 20L);
+    }
+
+    /**
+     * Creates a scheduler which is only checked when {@link #tick()} is called.
+     *
+     * @param deadlineFunction Gets the time in milliseconds at which a world should be unloaded
+     * @param unloader         Unloads a world once its deadline has passed
+     */
+    WorldUnloadScheduler(ToLongFunction<T> deadlineFunction, Consumer<T> unloader) {
+        this.deadlineFunction = deadlineFunction;
+        this.unloader = unloader;
+        this.deadlines = new PriorityQueue<>();
+        this.scheduledWorlds = new HashMap<>();
+    }
+
+    /**
+     * Makes sure the given world is unloaded once its deadline has passed. Does nothing if it already is scheduled.
+     *
+     * @param world The world to schedule
+     */
+    void schedule(T world) {
+        if (!scheduledWorlds.containsKey(world)) {
+            enqueue(world, deadlineFunction.applyAsLong(world));
+        }
+    }
+
+    /**
+     * Stops the given world from being unloaded. Its entry is discarded once it reaches the head of the queue.
+     *
+     * @param world The world to cancel
+     */
+    void cancel(T world) {
+        scheduledWorlds.remove(world);
+    }
+
+    private void enqueue(T world, long time) {
+        Deadline<T> deadline = new Deadline<>(world, time);
+        scheduledWorlds.put(world, deadline);
+        deadlines.add(deadline);
+    }
+
+    /**
+     * Unloads all worlds whose deadline has passed and puts those whose deadline has been postponed back into the queue.
+     */
+    void tick() {
+        long now = System.currentTimeMillis();
+        while (!deadlines.isEmpty() && deadlines.peek().time <= now) {
+            Deadline<T> deadline = deadlines.poll();
+            T world = deadline.world;
+            if (scheduledWorlds.get(world) != deadline) {
+                continue;
+            }
+
+            long time = deadlineFunction.applyAsLong(world);
+            if (time > now) {
+                enqueue(world, time);
+                continue;
+            }
+
+            scheduledWorlds.remove(world);
+            unloader.accept(world);
+        }
+    }
+
+    private static class Deadline<T> implements Comparable<Deadline<T>> {
+
+        private final T world;
+        private final long time;
+
+        private Deadline(T world, long time) {
+            this.world = world;
+            this.time = time;
+        }
+
+        @Override
+        public int compareTo(Deadline<T> other) {
+            return Long.compare(time, other.time);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import com.eintosti.buildsystem.BuildSystem;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.logging.Logger;
+
+/**
+ * Unloads the chunks of a {@link BuildWorld} over several ticks before the world itself is unloaded.
+ * <p>
+ * At most {@link #CHUNKS_PER_TICK} chunks are saved and unloaded per tick. Once no more than
+ * {@link #REMAINING_CHUNKS} chunks are left, or the remaining chunks cannot be unloaded (e.g. spawn chunks which are
+ * kept in memory), the world is unloaded through {@link BuildWorld#forceUnload(boolean)}. The task is cancelled as
+ * soon as a player enters the world again.
+ *
+ * @author einTosti
+ */
+class WorldUnloadTask implements Runnable {
+
+    private static final int CHUNKS_PER_TICK = 16;
+    private static final int REMAINING_CHUNKS = 32;
+    private static final long PROGRESS_INTERVAL = 20L * 5;
+
+    private final Logger logger;
+    private final BuildWorld buildWorld;
+    private final World world;
+    private final BukkitTask task;
+
+    private Chunk[] chunks;
+    private int index;
+    private int unloadedChunks;
+    private int totalChunks;
+    private long ticks;
+
+    WorldUnloadTask(BuildSystem plugin, BuildWorld buildWorld, World world) {
+        this.logger = plugin.getLogger();
+        this.buildWorld = buildWorld;
+        this.world = world;
+        this.chunks = world.getLoadedChunks();
+        this.totalChunks = chunks.length;
+
+        logger.info("*** Unloading world \"" + buildWorld.getName() + "\" (" + totalChunks + " chunks) ***");
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this, 1L, 1L);
+    }
+
+    @Override
+    public void run() {
+        if (!world.getPlayers().isEmpty()) {
+            logger.info("*** Cancelled unloading world \"" + buildWorld.getName() + "\" as a player entered it ***");
+            buildWorld.cancelStagedUnload();
+            buildWorld.resetUnloadTask();
+            return;
+        }
+
+        for (int i = 0; i < CHUNKS_PER_TICK && index < chunks.length; index++) {
+            Chunk chunk = chunks[index];
+            if (!chunk.isLoaded()) {
+                continue;
+            }
+
+            chunk.unload(true);
+            unloadedChunks++;
+            i++;
+        }
+
+        if (++ticks % PROGRESS_INTERVAL == 0) {
+            logger.info("*** Unloading world \"" + buildWorld.getName() + "\": " + unloadedChunks + "/" + totalChunks + " chunks ***");
+        }
+
+        if (index < chunks.length) {
+            return;
+        }
+
+        Chunk[] remainingChunks = world.getLoadedChunks();
+        if (remainingChunks.length > REMAINING_CHUNKS && remainingChunks.length < chunks.length) {
+            // Keep going for as long as a pass reduces the amount of loaded chunks
+            this.chunks = remainingChunks;
+            this.index = 0;
+            this.totalChunks = unloadedChunks + remainingChunks.length;
+            return;
+        }
+
+        buildWorld.cancelStagedUnload();
+        buildWorld.forceUnload(true);
+    }
+
+    /**
+     * Stops unloading the world's chunks.
+     */
+    void cancel() {
+        task.cancel();
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world.backup;
+
+import com.eintosti.buildsystem.BuildSystem;
+import com.eintosti.buildsystem.config.ConfigValues;
+import com.eintosti.buildsystem.util.FileOperations;
+import com.eintosti.buildsystem.util.FileUtils;
+import com.eintosti.buildsystem.world.BuildWorld;
+import com.eintosti.buildsystem.world.WorldArchiver;
+import com.eintosti.buildsystem.world.WorldManager;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Creates and restores {@link WorldBackup}s, either on request or every {@code backup.interval-minutes} minutes.
+ * <p>
+ * Before a loaded world is backed up, it is saved on the main thread and automatic saving is disabled until the backup
+ * has been created, so that the files do not change while they are being read. All other work is done on a single
+ * backup thread, with files being hashed and copied on the {@link FileOperations} threads. After each backup, the
+ * world's backups are pruned according to {@code backup.max-backups} and {@code backup.max-age-days}. Must only be
+ * used from the main thread.
+ *
+ * @author einTosti
+ */
+public class BackupManager {
+
+    private static final String RESTORE_PREFIX = ".restore-backup-";
+    // Must not start with the prefix of the restore folders, which are deleted when the server starts
+    private static final String PREVIOUS_PREFIX = ".replaced-";
+
+    private final BuildSystem plugin;
+    private final Logger logger;
+    private final ConfigValues configValues;
+    private final WorldManager worldManager;
+    private final BackupStore backupStore;
+    private final ExecutorService executor;
+
+    private final Set<String> runningWorlds;
+    private final Deque<String> scheduledWorlds;
+
+    public BackupManager(BuildSystem plugin, WorldManager worldManager) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.configValues = plugin.getConfigValues();
+        this.worldManager = worldManager;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BuildSystem Backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.backupStore = new BackupStore(logger, plugin.getFileOperations().getExecutor(), new File(plugin.getDataFolder(), "backups").toPath());
+        this.runningWorlds = new HashSet<>();
+        this.scheduledWorlds = new ArrayDeque<>();
+
+        executor.execute(() -> {
+            try {
+                backupStore.load();
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Unable to load the world backups", e);
+            }
+        });
+
+        long interval = 20L * 60 * configValues.getBackupIntervalMinutes();
+        if (interval > 0) {
+            Bukkit.getScheduler().runTaskTimer(plugin, this::backupAllWorlds, interval, interval);
+        }
+    }
+
+    /**
+     * Gets whether a world is currently being backed up or restored.
+     *
+     * @param worldName The name of the world
+     * @return {@code true} if a backup of the world is running, otherwise {@code false}
+     */
+    public boolean isRunning(String worldName) {
+        return runningWorlds.contains(worldName);
+    }
+
+    /**
+     * Gets all backups of a world.
+     *
+     * @param worldName The name of the world
+     * @return An unmodifiable list of the backups, from oldest to newest
+     */
+    public List<WorldBackup> getBackups(String worldName) {
+        return backupStore.getBackups(worldName);
+    }
+
+    /**
+     * Gets the backup of a world with the given id.
+     *
+     * @param worldName The name of the world
+     * @param id        The id of the backup
+     * @return The backup if found, otherwise {@code null}
+     */
+    @Nullable
+    public WorldBackup getBackup(String worldName, String id) {
+        return getBackups(worldName).stream()
+                .filter(backup -> backup.getId().equalsIgnoreCase(id))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Creates a backup of a {@link BuildWorld}. If the world's folder has been compressed, it is restored first.
+     *
+     * @param buildWorld    The world to back up
+     * @param skipUnchanged Whether no backup should be created if the world has not changed since its latest backup
+     * @return A future which completes on the main thread with the created backup, or {@code null} if the world has
+     * not changed
+     */
+    public CompletableFuture<WorldBackup> backup(BuildWorld buildWorld, boolean skipUnchanged) {
+        String worldName = buildWorld.getName();
+        if (worldManager.getRegionCompactor().isRunning(worldName)) {
+            return failedFuture(new IllegalStateException(worldName + " is being compacted"));
+        }
+        if (!runningWorlds.add(worldName)) {
+            return failedFuture(new IllegalStateException("A backup of " + worldName + " is already running"));
+        }
+
+        World bukkitWorld = Bukkit.getWorld(worldName);
+        boolean autoSave = bukkitWorld != null && bukkitWorld.isAutoSave();
+        if (bukkitWorld != null) {
+            bukkitWorld.save();
+            bukkitWorld.setAutoSave(false);
+        }
+
+        Path worldFolder = new File(Bukkit.getWorldContainer(), worldName).toPath();
+        CompletableFuture<WorldBackup> result = new CompletableFuture<>();
+        restoreArchive(worldName).thenApplyAsync(ignored -> {
+            try {
+                return backupStore.create(worldName, worldFolder, skipUnchanged);
+            } catch (IOException e) {
+                throw new FileOperations.FileOperationException("Unable to back up " + worldName, e);
+            }
+        }, executor).whenComplete((backup, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            runningWorlds.remove(worldName);
+            World currentWorld = Bukkit.getWorld(worldName);
+            if (autoSave && currentWorld != null) {
+                currentWorld.setAutoSave(true);
+            }
+
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+
+            result.complete(backup);
+            if (backup != null) {
+                prune(worldName);
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Replaces the backed up files of a {@link BuildWorld} with the ones stored in a backup. Files which did not exist
+     * when the backup was created, e.g. newly generated regions, are deleted. The world is unloaded without being
+     * saved, so no players may be inside it.
+     *
+     * @param buildWorld The world to restore
+     * @param backup     The backup to restore
+     * @return A future which completes on the main thread once the backup has been restored
+     */
+    public CompletableFuture<Void> restore(BuildWorld buildWorld, WorldBackup backup) {
+        String worldName = buildWorld.getName();
+        if (worldManager.getRegionCompactor().isRunning(worldName)) {
+            return failedFuture(new IllegalStateException(worldName + " is being compacted"));
+        }
+        if (!runningWorlds.add(worldName)) {
+            return failedFuture(new IllegalStateException("A backup of " + worldName + " is already running"));
+        }
+
+        if (Bukkit.getWorld(worldName) != null) {
+            buildWorld.forceUnload(false);
+        }
+        if (Bukkit.getWorld(worldName) != null) {
+            runningWorlds.remove(worldName);
+            return failedFuture(new IllegalStateException("Unable to unload " + worldName));
+        }
+
+        Path worldContainer = Bukkit.getWorldContainer().toPath();
+        Path worldFolder = worldContainer.resolve(worldName);
+        String folderSuffix = worldName.replace('/', '_') + "-" + System.currentTimeMillis();
+        Path restoreFolder = worldContainer.resolve(RESTORE_PREFIX + folderSuffix);
+        Path previousFolder = worldContainer.resolve(PREVIOUS_PREFIX + folderSuffix);
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        restoreArchive(worldName).thenRunAsync(() -> {
+            try {
+                backupStore.restore(backup, restoreFolder);
+            } catch (IOException e) {
+                throw new FileOperations.FileOperationException("Unable to restore " + worldName, e);
+            }
+        }, executor).whenComplete((ignored, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            runningWorlds.remove(worldName);
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else {
+                try {
+                    // The files are replaced on the main thread, so that the world cannot be loaded in the meantime
+                    replaceFiles(worldName, worldFolder, restoreFolder, previousFolder, backup);
+                    result.complete(null);
+                } catch (IOException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+            plugin.getFileOperations().deleteDirectory(restoreFolder, null);
+        }));
+        return result;
+    }
+
+    /**
+     * Moves the captured files of the world into {@code previousFolder} and the restored files into the world's folder.
+     * If a file cannot be moved, the files which have already been moved are put back, so that the world is left as it
+     * was before the restore.
+     */
+    private void replaceFiles(String worldName, Path worldFolder, Path restoreFolder, Path previousFolder, WorldBackup backup) throws IOException {
+        if (Bukkit.getWorld(worldName) != null) {
+            throw new IOException("The world " + worldName + " has been loaded while the backup was restored");
+        }
+
+        List<String> currentPaths = new ArrayList<>();
+        if (Files.isDirectory(worldFolder)) {
+            try (Stream<Path> paths = Files.walk(worldFolder)) {
+                paths.filter(Files::isRegularFile)
+                        .map(file -> worldFolder.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"))
+                        .filter(BackupStore::isCaptured)
+                        .forEach(currentPaths::add);
+            }
+        }
+
+        List<String> movedAside = new ArrayList<>();
+        List<String> restored = new ArrayList<>();
+        try {
+            for (String path : currentPaths) {
+                move(worldFolder.resolve(path), previousFolder.resolve(path));
+                movedAside.add(path);
+            }
+            for (WorldBackup.Entry entry : backup.getEntries()) {
+                move(restoreFolder.resolve(entry.getPath()), worldFolder.resolve(entry.getPath()));
+                restored.add(entry.getPath());
+            }
+            plugin.getFileOperations().deleteDirectory(previousFolder, null);
+        } catch (IOException e) {
+            try {
+                for (String path : restored) {
+                    Files.delete(worldFolder.resolve(path));
+                }
+                for (String path : movedAside) {
+                    move(previousFolder.resolve(path), worldFolder.resolve(path));
+                }
+            } catch (IOException rollbackException) {
+                logger.log(Level.SEVERE, "Unable to roll back the restore of " + worldName + ", its previous files are kept in " + previousFolder, rollbackException);
+                e.addSuppressed(rollbackException);
+                throw e;
+            }
+            plugin.getFileOperations().deleteDirectory(previousFolder, null);
+            throw e;
+        } finally {
+            worldManager.getLevelMetadataIndex().invalidate(worldName);
+        }
+    }
+
+    private void move(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores the world's folder if it has been compressed, so that it can be backed up.
+     */
+    private CompletableFuture<Void> restoreArchive(String worldName) {
+        WorldArchiver worldArchiver = worldManager.getWorldArchiver();
+        return worldArchiver.isArchived(worldName) ? worldArchiver.restore(worldName) : CompletableFuture.completedFuture(null);
+    }
+
+    private void prune(String worldName) {
+        int maxBackups = configValues.getMaxBackups();
+        int maxAgeDays = configValues.getBackupMaxAgeDays();
+        executor.execute(() -> {
+            try {
+                int deletedBackups = backupStore.prune(worldName, maxBackups, maxAgeDays);
+                if (deletedBackups > 0) {
+                    long freedBytes = backupStore.collectGarbage();
+                    logger.info(String.format("Deleted %d old backups of \"%s\", freeing %s", deletedBackups, worldName, FileUtils.formatSize(freedBytes)));
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Unable to delete the old backups of " + worldName, e);
+            }
+        });
+    }
+
+    /**
+     * Backs up all worlds which have changed since their latest backup, one after another. Compressed worlds have not
+     * changed since they were last unloaded and are skipped.
+     */
+    private void backupAllWorlds() {
+        if (!scheduledWorlds.isEmpty()) {
+            return;
+        }
+
+        worldManager.getBuildWorlds().forEach(buildWorld -> scheduledWorlds.add(buildWorld.getName()));
+        backupNextWorld();
+    }
+
+    private void backupNextWorld() {
+        String worldName;
+        while ((worldName = scheduledWorlds.poll()) != null) {
+            BuildWorld buildWorld = worldManager.getBuildWorld(worldName);
+            if (buildWorld == null || isRunning(worldName) || worldManager.getRegionCompactor().isRunning(worldName)
+                    || worldManager.getWorldArchiver().isArchived(worldName)
+                    || !new File(Bukkit.getWorldContainer(), worldName).isDirectory()) {
+                continue;
+            }
+
+            String backedUpWorld = worldName;
+            backup(buildWorld, true).whenComplete((backup, throwable) -> {
+                if (throwable != null) {
+                    logger.log(Level.WARNING, "Unable to back up " + backedUpWorld, throwable);
+                } else if (backup != null) {
+                    logger.info(String.format("Created backup %s of \"%s\" (%s new)", backup.getId(), backedUpWorld, FileUtils.formatSize(backup.getStoredBytes())));
+                }
+                backupNextWorld();
+            });
+            return;
+        }
+    }
+
+    /**
+     * Waits for running backups to finish and stops the backup thread.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warning("Timed out while waiting for backups to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> failedFuture(Throwable throwable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+}
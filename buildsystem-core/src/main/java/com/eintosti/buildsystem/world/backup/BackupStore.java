@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world.backup;
+
+import com.eintosti.buildsystem.util.FileOperations;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A content-addressed store of {@link WorldBackup}s.
+ * <p>
+ * The contents of every backed up file are stored once under their SHA-256 hash in the {@code objects} folder, so
+ * that files which did not change between two backups, even of different worlds, only take up space once. Each backup
+ * is described by a manifest in the {@code snapshots} folder, which maps the world's files to their hashes. A file
+ * whose size and modification time have not changed since the previous backup is not read again.
+ * <p>
+ * All methods which modify the store must be called from the same thread, so that no object is deleted while a
+ * backup which references it is being created. Files are written to a temporary file first and then moved into place,
+ * so that the store stays consistent if the server is stopped during a backup.
+ *
+ * @author einTosti
+ */
+class BackupStore {
+
+    /**
+     * Region, entity and POI files, including the ones of other dimensions, and the {@code level.dat}.
+     */
+    private static final Pattern CAPTURED_FILE = Pattern.compile("(?:[^/]+/)?(?:region|entities|poi)/[^/]+\\.mca|level\\.dat");
+    private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneId.systemDefault());
+    private static final String MANIFEST_EXTENSION = ".json";
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    private final Logger logger;
+    private final Executor ioExecutor;
+    private final Path objectsFolder;
+    private final Path snapshotsFolder;
+    private final Map<String, List<WorldBackup>> backups;
+
+    /**
+     * @param logger     The logger
+     * @param ioExecutor The executor on which files are hashed and copied in parallel
+     * @param folder     The folder in which the store is kept
+     */
+    BackupStore(Logger logger, Executor ioExecutor, Path folder) {
+        this.logger = logger;
+        this.ioExecutor = ioExecutor;
+        this.objectsFolder = folder.resolve("objects");
+        this.snapshotsFolder = folder.resolve("snapshots");
+        this.backups = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets whether a file is included in backups.
+     *
+     * @param path The path of the file relative to the world folder, separated by {@code /}
+     * @return {@code true} if the file is backed up, otherwise {@code false}
+     */
+    static boolean isCaptured(String path) {
+        return CAPTURED_FILE.matcher(path).matches();
+    }
+
+    /**
+     * Reads the manifests of all backups.
+     */
+    void load() throws IOException {
+        if (!Files.isDirectory(snapshotsFolder)) {
+            return;
+        }
+
+        Map<String, List<WorldBackup>> loadedBackups = new HashMap<>();
+        try (Stream<Path> paths = Files.walk(snapshotsFolder)) {
+            for (Path manifest : paths.filter(path -> path.getFileName().toString().endsWith(MANIFEST_EXTENSION)).collect(Collectors.toList())) {
+                try (Reader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+                    WorldBackup backup = WorldBackup.deserialize(new JsonParser().parse(reader).getAsJsonObject());
+                    loadedBackups.computeIfAbsent(backup.getWorldName(), worldName -> new ArrayList<>()).add(backup);
+                } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+                    logger.warning("Unable to read the backup " + snapshotsFolder.relativize(manifest) + ": " + e.getMessage());
+                }
+            }
+        }
+
+        loadedBackups.forEach((worldName, worldBackups) -> {
+            worldBackups.sort(Comparator.comparingLong(WorldBackup::getCreationDate));
+            backups.put(worldName, Collections.unmodifiableList(worldBackups));
+        });
+    }
+
+    /**
+     * Gets all backups of a world. May be called from any thread.
+     *
+     * @param worldName The name of the world
+     * @return An unmodifiable list of the backups, from oldest to newest
+     */
+    List<WorldBackup> getBackups(String worldName) {
+        return backups.getOrDefault(worldName, Collections.emptyList());
+    }
+
+    @Nullable
+    private WorldBackup getLatestBackup(String worldName) {
+        List<WorldBackup> worldBackups = getBackups(worldName);
+        return worldBackups.isEmpty() ? null : worldBackups.get(worldBackups.size() - 1);
+    }
+
+    /**
+     * Creates a backup of a world's folder.
+     *
+     * @param worldName     The name of the world
+     * @param worldFolder   The world's folder
+     * @param skipUnchanged Whether no backup should be created if the files are the same as in the latest backup
+     * @return The created backup, or {@code null} if the world has not changed
+     */
+    @Nullable
+    WorldBackup create(String worldName, Path worldFolder, boolean skipUnchanged) throws IOException {
+        WorldBackup latestBackup = getLatestBackup(worldName);
+        Map<String, WorldBackup.Entry> latestEntries = new HashMap<>();
+        if (latestBackup != null) {
+            latestBackup.getEntries().forEach(entry -> latestEntries.put(entry.getPath(), entry));
+        }
+
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(worldFolder)) {
+            files = paths.filter(path -> Files.isRegularFile(path) && isCaptured(toRelativePath(worldFolder, path))).collect(Collectors.toList());
+        }
+
+        Files.createDirectories(objectsFolder);
+        AtomicLong storedBytes = new AtomicLong();
+        List<CompletableFuture<WorldBackup.Entry>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            String path = toRelativePath(worldFolder, file);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return store(file, path, latestEntries.get(path), storedBytes);
+                } catch (IOException e) {
+                    throw new FileOperations.FileOperationException("Unable to back up " + path, e);
+                }
+            }, ioExecutor));
+        }
+
+        List<WorldBackup.Entry> entries = new ArrayList<>(files.size());
+        try {
+            for (CompletableFuture<WorldBackup.Entry> future : futures) {
+                entries.add(future.join());
+            }
+        } catch (CompletionException e) {
+            throw new IOException(e.getCause());
+        }
+        entries.sort(Comparator.comparing(WorldBackup.Entry::getPath));
+
+        long creationDate = System.currentTimeMillis();
+        WorldBackup backup = new WorldBackup(createId(worldName, creationDate), worldName, creationDate, storedBytes.get(), entries);
+        if (skipUnchanged && latestBackup != null && backup.hasSameContents(latestBackup)) {
+            return null;
+        }
+
+        Path manifest = getManifest(backup);
+        Files.createDirectories(manifest.getParent());
+        Path tempFile = manifest.resolveSibling(manifest.getFileName() + TEMP_EXTENSION);
+        Files.write(tempFile, backup.serialize().toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(tempFile, manifest, StandardCopyOption.ATOMIC_MOVE);
+
+        List<WorldBackup> worldBackups = new ArrayList<>(getBackups(worldName));
+        worldBackups.add(backup);
+        backups.put(worldName, Collections.unmodifiableList(worldBackups));
+        return backup;
+    }
+
+    private String toRelativePath(Path worldFolder, Path file) {
+        return worldFolder.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    private String createId(String worldName, long creationDate) {
+        String id = ID_FORMAT.format(Instant.ofEpochMilli(creationDate));
+        Set<String> existingIds = getBackups(worldName).stream().map(WorldBackup::getId).collect(Collectors.toSet());
+        String uniqueId = id;
+        for (int i = 2; existingIds.contains(uniqueId); i++) {
+            uniqueId = id + "-" + i;
+        }
+        return uniqueId;
+    }
+
+    /**
+     * Adds a file's contents to the store, unless the file has not changed since the latest backup. Called on an I/O
+     * thread.
+     */
+    private WorldBackup.Entry store(Path file, String path, @Nullable WorldBackup.Entry latestEntry, AtomicLong storedBytes) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (latestEntry != null && latestEntry.getSize() == size && latestEntry.getLastModified() == lastModified
+                && Files.exists(getObject(latestEntry.getHash()))) {
+            return new WorldBackup.Entry(path, latestEntry.getHash(), size, lastModified);
+        }
+
+        MessageDigest digest = createDigest();
+        Path tempFile = objectsFolder.resolve(UUID.randomUUID() + TEMP_EXTENSION);
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        String hash = String.format("%064x", new BigInteger(1, digest.digest()));
+        Path object = getObject(hash);
+        if (Files.exists(object)) {
+            Files.delete(tempFile);
+        } else {
+            Files.createDirectories(object.getParent());
+            try {
+                Files.move(tempFile, object, StandardCopyOption.ATOMIC_MOVE);
+                storedBytes.addAndGet(size);
+            } catch (FileAlreadyExistsException e) {
+                // Another file with the same contents was stored in the meantime
+                Files.delete(tempFile);
+            }
+        }
+        return new WorldBackup.Entry(path, hash, size, lastModified);
+    }
+
+    private MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    private Path getObject(String hash) {
+        return objectsFolder.resolve(hash.substring(0, 2)).resolve(hash.substring(2));
+    }
+
+    private Path getManifest(WorldBackup backup) {
+        return snapshotsFolder.resolve(backup.getWorldName()).resolve(backup.getId() + MANIFEST_EXTENSION);
+    }
+
+    /**
+     * Copies the files of a backup into a folder. The files keep the modification time they had when the backup was
+     * created, so that they do not have to be read again by the next backup.
+     *
+     * @param backup The backup to restore
+     * @param folder The folder to copy the files to
+     */
+    void restore(WorldBackup backup, Path folder) throws IOException {
+        for (WorldBackup.Entry entry : backup.getEntries()) {
+            Path target = folder.resolve(entry.getPath());
+            Files.createDirectories(target.getParent());
+            Files.copy(getObject(entry.getHash()), target, StandardCopyOption.REPLACE_EXISTING);
+            Files.setLastModifiedTime(target, FileTime.fromMillis(entry.getLastModified()));
+        }
+    }
+
+    /**
+     * Deletes the backups of a world which exceed the retention limits. The latest backup is always kept.
+     *
+     * @param worldName   The name of the world
+     * @param maxBackups  The maximum amount of backups to keep, or a value {@code <= 0} for no limit
+     * @param maxAgeDays  The maximum age of a backup in days, or a value {@code <= 0} for no limit
+     * @return The amount of deleted backups
+     */
+    int prune(String worldName, int maxBackups, int maxAgeDays) throws IOException {
+        List<WorldBackup> worldBackups = getBackups(worldName);
+        long minCreationDate = maxAgeDays > 0 ? System.currentTimeMillis() - TimeUnit.DAYS.toMillis(maxAgeDays) : Long.MIN_VALUE;
+        int excessBackups = maxBackups > 0 ? worldBackups.size() - maxBackups : 0;
+
+        List<WorldBackup> keptBackups = new ArrayList<>();
+        for (int i = 0; i < worldBackups.size(); i++) {
+            WorldBackup backup = worldBackups.get(i);
+            boolean latest = i == worldBackups.size() - 1;
+            if (!latest && (i < excessBackups || backup.getCreationDate() < minCreationDate)) {
+                Files.deleteIfExists(getManifest(backup));
+            } else {
+                keptBackups.add(backup);
+            }
+        }
+
+        backups.put(worldName, Collections.unmodifiableList(keptBackups));
+        return worldBackups.size() - keptBackups.size();
+    }
+
+    /**
+     * Deletes all objects which are no longer referenced by any backup, as well as temporary files of backups which
+     * did not finish.
+     *
+     * @return The amount of freed bytes
+     */
+    long collectGarbage() throws IOException {
+        if (!Files.isDirectory(objectsFolder)) {
+            return 0;
+        }
+
+        Set<String> referencedHashes = new HashSet<>();
+        backups.values().forEach(worldBackups -> worldBackups.forEach(backup ->
+                backup.getEntries().forEach(entry -> referencedHashes.add(entry.getHash()))
+        ));
+
+        long freedBytes = 0;
+        try (Stream<Path> paths = Files.walk(objectsFolder)) {
+            for (Path object : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                String hash = object.getParent().getFileName().toString() + object.getFileName();
+                if (!object.getFileName().toString().endsWith(TEMP_EXTENSION) && referencedHashes.contains(hash)) {
+                    continue;
+                }
+
+                freedBytes += Files.size(object);
+                Files.delete(object);
+            }
+        }
+        return freedBytes;
+    }
+}
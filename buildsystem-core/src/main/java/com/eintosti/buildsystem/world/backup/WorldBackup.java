@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world.backup;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A snapshot of a world's region, entity and POI files and its {@code level.dat}. The contents of the files are stored
+ * separately in the {@link BackupStore}, referenced by their hash.
+ *
+ * @author einTosti
+ */
+public class WorldBackup {
+
+    private final String id;
+    private final String worldName;
+    private final long creationDate;
+    private final long storedBytes;
+    private final List<Entry> entries;
+
+    WorldBackup(String id, String worldName, long creationDate, long storedBytes, List<Entry> entries) {
+        this.id = id;
+        this.worldName = worldName;
+        this.creationDate = creationDate;
+        this.storedBytes = storedBytes;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public long getCreationDate() {
+        return creationDate;
+    }
+
+    /**
+     * Gets the amount of bytes which had to be added to the store when the backup was created, i.e. the size of all
+     * files which were not part of any previous backup.
+     *
+     * @return The amount of new bytes
+     */
+    public long getStoredBytes() {
+        return storedBytes;
+    }
+
+    /**
+     * Gets the total size of the world's files at the time the backup was created.
+     *
+     * @return The size in bytes
+     */
+    public long getSize() {
+        return entries.stream().mapToLong(Entry::getSize).sum();
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets whether the backup contains exactly the same files as another one.
+     *
+     * @param other The other backup
+     * @return {@code true} if no file has been added, removed or changed, otherwise {@code false}
+     */
+    boolean hasSameContents(WorldBackup other) {
+        if (entries.size() != other.entries.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            Entry otherEntry = other.entries.get(i);
+            if (!entry.path.equals(otherEntry.path) || !entry.hash.equals(otherEntry.hash)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    JsonObject serialize() {
+        JsonArray files = new JsonArray();
+        for (Entry entry : entries) {
+            JsonObject file = new JsonObject();
+            file.addProperty("path", entry.path);
+            file.addProperty("hash", entry.hash);
+            file.addProperty("size", entry.size);
+            file.addProperty("modified", entry.lastModified);
+            files.add(file);
+        }
+
+        JsonObject json = new JsonObject();
+        json.addProperty("id", id);
+        json.addProperty("world", worldName);
+        json.addProperty("created", creationDate);
+        json.addProperty("stored", storedBytes);
+        json.add("files", files);
+        return json;
+    }
+
+    static WorldBackup deserialize(JsonObject json) {
+        List<Entry> entries = new ArrayList<>();
+        for (JsonElement element : json.getAsJsonArray("files")) {
+            JsonObject file = element.getAsJsonObject();
+            entries.add(new Entry(
+                    file.get("path").getAsString(),
+                    file.get("hash").getAsString(),
+                    file.get("size").getAsLong(),
+                    file.get("modified").getAsLong()
+            ));
+        }
+
+        return new WorldBackup(
+                json.get("id").getAsString(),
+                json.get("world").getAsString(),
+                json.get("created").getAsLong(),
+                json.get("stored").getAsLong(),
+                entries
+        );
+    }
+
+    /**
+     * A file which is part of a backup.
+     */
+    public static class Entry {
+
+        private final String path;
+        private final String hash;
+        private final long size;
+        private final long lastModified;
+
+        Entry(String path, String hash, long size, long lastModified) {
+            this.path = path;
+            this.hash = hash;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * @return The path of the file relative to the world folder, separated by {@code /}
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return The SHA-256 hash of the file's contents
+         */
+        public String getHash() {
+            return hash;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
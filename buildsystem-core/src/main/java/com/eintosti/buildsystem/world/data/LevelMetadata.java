@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world.data;
+
+/**
+ * The fields of a world's {@code level.dat} which are of interest to the plugin.
+ *
+ * @author einTosti
+ */
+public class LevelMetadata {
+
+    private final long lastModified;
+    private final long size;
+    private final int dataVersion;
+
+    public LevelMetadata(long lastModified, long size, int dataVersion) {
+        this.lastModified = lastModified;
+        this.size = size;
+        this.dataVersion = dataVersion;
+    }
+
+    /**
+     * Gets whether the metadata was read from a {@code level.dat} with the given modification time and size.
+     *
+     * @param lastModified The time at which the file was last modified
+     * @param size         The size of the file
+     * @return {@code true} if the metadata is still up-to-date, otherwise {@code false}
+     */
+    public boolean matches(long lastModified, long size) {
+        return this.lastModified == lastModified && this.size == size;
+    }
+
+    /**
+     * Gets a copy of the metadata with a different data version, e.g. after the {@code level.dat} was updated.
+     *
+     * @param lastModified The time at which the file was last modified
+     * @param size         The size of the file
+     * @param dataVersion  The new data version
+     * @return The updated metadata
+     */
+    public LevelMetadata withDataVersion(long lastModified, long size, int dataVersion) {
+        return new LevelMetadata(lastModified, size, dataVersion);
+    }
+
+    /**
+     * @return The world's data version, or -1 if none is stored
+     * @see <a href="https://minecraft.fandom.com/wiki/Data_version">Data version</a>
+     */
+    public int getDataVersion() {
+        return dataVersion;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class UUIDFetcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @AfterEach
+    void resetResolver() {
+        UUIDFetcher.setResolver(new MojangProfileResolver());
+    }
+
+    @Test
+    void unexpectedBatchFailureReleasesPendingLookups() {
+        UUID uuid = UUID.randomUUID();
+        UUIDFetcher.setResolver(new TestResolver() {
+            @Override
+            public void fetchUUIDs(Collection<String> names, BiConsumer<String, UUID> consumer) {
+                throw new IllegalStateException("Malformed response");
+            }
+        });
+        assertThrows(IllegalStateException.class, () -> UUIDFetcher.getUUIDs(Collections.singletonList("Alpha")));
+
+        UUIDFetcher.setResolver(new TestResolver() {
+            @Override
+            public UUID fetchUUID(String name) {
+                return uuid;
+            }
+        });
+        assertEquals(uuid, assertTimeoutPreemptively(TIMEOUT, () -> UUIDFetcher.getUUID("Alpha")));
+    }
+
+    @Test
+    void failedBatchKeepsPlayersWhichWereFound() {
+        UUID uuid = UUID.randomUUID();
+        UUIDFetcher.setResolver(new TestResolver() {
+            @Override
+            public void fetchUUIDs(Collection<String> names, BiConsumer<String, UUID> consumer) throws IOException {
+                consumer.accept("Bravo", uuid);
+                throw new IOException("Second batch failed");
+            }
+        });
+
+        Map<String, UUID> uuids = assertTimeoutPreemptively(TIMEOUT, () -> UUIDFetcher.getUUIDs(Arrays.asList("Bravo", "Charlie")));
+        assertEquals(Collections.singletonMap("bravo", uuid), uuids);
+
+        UUIDFetcher.setResolver(new TestResolver());
+        assertEquals(uuid, UUIDFetcher.getUUID("bravo"));
+        assertEquals("Bravo", UUIDFetcher.getName(uuid));
+    }
+
+    /**
+     * Fails every lookup which is not overridden, so that tests notice unexpected requests.
+     */
+    private static class TestResolver implements ProfileResolver {
+
+        @Override
+        public UUID fetchUUID(String name) {
+            return fail("Unexpected lookup of " + name);
+        }
+
+        @Override
+        public void fetchUUIDs(Collection<String> names, BiConsumer<String, UUID> consumer) throws IOException {
+            fail("Unexpected lookup of " + names);
+        }
+
+        @Override
+        public String fetchName(UUID uuid) {
+            return fail("Unexpected lookup of " + uuid);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world;
+
+import com.eintosti.buildsystem.world.data.WorldType;
+import dev.dewy.nbt.Nbt;
+import dev.dewy.nbt.tags.collection.CompoundTag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RegionFileCompactorTest {
+
+    private static final int SECTOR_SIZE = 4096;
+    private static final int DATA_VERSION = 2975;
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void removesVoidChunksAndKeepsBuiltChunks() throws IOException {
+        byte[] air = chunk("minecraft:air");
+        byte[] stone = chunk("minecraft:stone");
+        // The built chunk is stored behind an unused sector, which is removed as well
+        Path regionFile = writeRegion(new byte[][]{air, null, stone}, new int[]{2, 0, 4});
+
+        RegionFileCompactor compactor = new RegionFileCompactor(regionFile, WorldType.VOID);
+        Path compactedFile = compactor.compact();
+
+        assertNotNull(compactedFile);
+        assertEquals(1, compactor.getRemovedChunks());
+        assertEquals(1, compactor.getKeptChunks());
+        assertEquals(3L * SECTOR_SIZE, Files.size(compactedFile));
+        assertEquals(Files.size(regionFile) - Files.size(compactedFile), compactor.getReclaimedBytes());
+
+        ByteBuffer compacted = ByteBuffer.wrap(Files.readAllBytes(compactedFile));
+        assertEquals(0, compacted.getInt(0));
+        assertEquals(2 << 8 | 1, compacted.getInt(2 * 4));
+        assertEquals(3, compacted.getInt(SECTOR_SIZE + 2 * 4));
+        byte[] keptChunk = new byte[stone.length];
+        compacted.position(2 * SECTOR_SIZE);
+        compacted.get(keptChunk);
+        assertArrayEquals(stone, keptChunk);
+    }
+
+    @Test
+    void deletesRegionFilesWithoutBuiltChunks() throws IOException {
+        Path regionFile = writeRegion(new byte[][]{chunk("minecraft:air"), chunk("minecraft:cave_air")}, new int[]{2, 3});
+
+        RegionFileCompactor compactor = new RegionFileCompactor(regionFile, WorldType.VOID);
+        Path compactedFile = compactor.compact();
+
+        assertNotNull(compactedFile);
+        assertFalse(Files.exists(compactedFile));
+        assertEquals(2, compactor.getRemovedChunks());
+        assertEquals(Files.size(regionFile), compactor.getReclaimedBytes());
+    }
+
+    @Test
+    void leavesRegionFilesWhichCannotBeShrunk() throws IOException {
+        Path regionFile = writeRegion(new byte[][]{chunk("minecraft:stone")}, new int[]{2});
+
+        RegionFileCompactor compactor = new RegionFileCompactor(regionFile, WorldType.VOID);
+
+        assertNull(compactor.compact());
+        assertFalse(Files.exists(regionFile.resolveSibling(regionFile.getFileName() + ".compact")));
+    }
+
+    /**
+     * Creates an uncompressed chunk in the format used since 1.18, whose lowest section is filled with a single block.
+     */
+    private byte[] chunk(String block) throws IOException {
+        CompoundTag state = new CompoundTag();
+        state.putString("Name", block);
+        CompoundTag blockStates = new CompoundTag();
+        blockStates.putList("palette", Collections.singletonList(state));
+        CompoundTag section = new CompoundTag();
+        section.putByte("Y", (byte) -4);
+        section.put("block_states", blockStates);
+
+        CompoundTag root = new CompoundTag("");
+        root.putInt("DataVersion", DATA_VERSION);
+        root.putList("sections", Collections.singletonList(section));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            new Nbt().toStream(root, out);
+        }
+        byte[] nbt = bytes.toByteArray();
+
+        ByteBuffer chunk = ByteBuffer.allocate(5 + nbt.length);
+        chunk.putInt(nbt.length + 1);
+        chunk.put((byte) 3);
+        chunk.put(nbt);
+        return chunk.array();
+    }
+
+    /**
+     * Writes a region file which stores the chunk at index {@code i} of the given array at the given sector.
+     */
+    private Path writeRegion(byte[][] chunks, int[] sectors) throws IOException {
+        int lastSector = Arrays.stream(sectors).max().orElse(1);
+        ByteBuffer region = ByteBuffer.allocate((lastSector + 1) * SECTOR_SIZE);
+        for (int i = 0; i < chunks.length; i++) {
+            if (chunks[i] == null) {
+                continue;
+            }
+
+            region.putInt(i * 4, sectors[i] << 8 | 1);
+            region.putInt(SECTOR_SIZE + i * 4, i + 1);
+            region.position(sectors[i] * SECTOR_SIZE);
+            region.put(chunks[i]);
+        }
+
+        Path regionFile = folder.resolve("r.0.0.mca");
+        Files.write(regionFile, region.array());
+        return regionFile;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022, Thomas Meaney
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.eintosti.buildsystem.world.backup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackupStoreTest {
+
+    private static final String WORLD_NAME = "world";
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    @TempDir
+    Path folder;
+
+    private Path worldFolder;
+    private Path storeFolder;
+    private BackupStore backupStore;
+
+    @BeforeEach
+    void createWorld() throws IOException {
+        this.worldFolder = folder.resolve(WORLD_NAME);
+        this.storeFolder = folder.resolve("backups");
+        this.backupStore = new BackupStore(Logger.getLogger(BackupStoreTest.class.getName()), DIRECT_EXECUTOR, storeFolder);
+
+        write("level.dat", 100, 1);
+        write("region/r.0.0.mca", 8192, 2);
+        write("DIM-1/region/r.0.0.mca", 4096, 3);
+        write("playerdata/player.dat", 200, 4);
+    }
+
+    @Test
+    void storesOnlyChangedFiles() throws IOException {
+        WorldBackup first = backupStore.create(WORLD_NAME, worldFolder, true);
+        assertNotNull(first);
+        assertEquals(Arrays.asList("DIM-1/region/r.0.0.mca", "level.dat", "region/r.0.0.mca"), getPaths(first));
+        assertEquals(100 + 8192 + 4096, first.getStoredBytes());
+
+        assertNull(backupStore.create(WORLD_NAME, worldFolder, true));
+
+        write("level.dat", 120, 5);
+        WorldBackup second = backupStore.create(WORLD_NAME, worldFolder, true);
+        assertNotNull(second);
+        assertEquals(120, second.getStoredBytes());
+        assertEquals(Arrays.asList(first, second), backupStore.getBackups(WORLD_NAME));
+    }
+
+    @Test
+    void storesIdenticalFilesOnce() throws IOException {
+        write("DIM-1/region/r.0.0.mca", 8192, 2);
+
+        WorldBackup backup = backupStore.create(WORLD_NAME, worldFolder, false);
+        assertNotNull(backup);
+        assertEquals(100 + 8192, backup.getStoredBytes());
+    }
+
+    @Test
+    void restoresBackupsAfterReloading() throws IOException {
+        WorldBackup backup = backupStore.create(WORLD_NAME, worldFolder, false);
+        assertNotNull(backup);
+
+        BackupStore reloadedStore = new BackupStore(Logger.getLogger(BackupStoreTest.class.getName()), DIRECT_EXECUTOR, storeFolder);
+        reloadedStore.load();
+        List<WorldBackup> backups = reloadedStore.getBackups(WORLD_NAME);
+        assertEquals(Collections.singletonList(backup.getId()), backups.stream().map(WorldBackup::getId).collect(Collectors.toList()));
+
+        Path restoreFolder = folder.resolve("restored");
+        reloadedStore.restore(backups.get(0), restoreFolder);
+        for (String path : getPaths(backup)) {
+            assertArrayEquals(Files.readAllBytes(worldFolder.resolve(path)), Files.readAllBytes(restoreFolder.resolve(path)));
+            assertEquals(Files.getLastModifiedTime(worldFolder.resolve(path)).toMillis(), Files.getLastModifiedTime(restoreFolder.resolve(path)).toMillis());
+        }
+        assertFalse(Files.exists(restoreFolder.resolve("playerdata/player.dat")));
+    }
+
+    @Test
+    void deletesObjectsOfPrunedBackups() throws IOException {
+        backupStore.create(WORLD_NAME, worldFolder, false);
+        write("region/r.0.0.mca", 12288, 6);
+        WorldBackup latest = backupStore.create(WORLD_NAME, worldFolder, false);
+
+        assertEquals(1, backupStore.prune(WORLD_NAME, 1, 0));
+        assertEquals(Collections.singletonList(latest), backupStore.getBackups(WORLD_NAME));
+        assertEquals(8192, backupStore.collectGarbage());
+        assertEquals(0, backupStore.collectGarbage());
+
+        Path restoreFolder = folder.resolve("restored");
+        backupStore.restore(latest, restoreFolder);
+        assertTrue(Files.isRegularFile(restoreFolder.resolve("region/r.0.0.mca")));
+    }
+
+    private void write(String path, int size, int seed) throws IOException {
+        byte[] contents = new byte[size];
+        Arrays.fill(contents, (byte) seed);
+        Path file = worldFolder.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, contents);
+    }
+
+    private List<String> getPaths(WorldBackup backup) {
+        return backup.getEntries().stream().map(WorldBackup.Entry::getPath).collect(Collectors.toList());
+    }
+}